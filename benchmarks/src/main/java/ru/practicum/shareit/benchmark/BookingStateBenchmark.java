@@ -0,0 +1,35 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.util.BookingState;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Запуск: java -jar benchmarks/target/benchmarks.jar BookingStateBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingStateBenchmark {
+
+    // Первое и последнее значение, другой регистр и неизвестное состояние
+    @Param({"ALL", "REJECTED", "future", "UNSUPPORTED_STATUS"})
+    private String state;
+
+    @Benchmark
+    public Optional<BookingState> checkState() {
+        return BookingState.checkState(state);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.dto.CommentMapper;
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Запуск: java -jar benchmarks/target/benchmarks.jar MapperBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int PAGE = 20;
+
+    private User user;
+    private Item item;
+    private List<Item> items;
+    private Booking booking;
+    private BookingShort bookingShort;
+    private Comment comment;
+    private ItemRequest itemRequest;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        user = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        itemRequest = ItemRequest.builder().id(3L).description("Нужна дрель").requestor(user).created(now).build();
+        items = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            items.add(Item.builder().id(100L + i).name("Дрель №" + i).description("Дрель ударная")
+                    .available(true).owner(owner).request(i % 2 == 0 ? itemRequest : null).build());
+        }
+        item = items.get(0);
+        booking = Booking.builder().id(4L).start(now).end(now.plusDays(1)).item(item).booker(user)
+                .status(BookingStatus.APPROVED).build();
+        bookingShort = new Short(item.getId(), booking.getId(), now, now.plusDays(1), user.getId());
+        comment = Comment.builder().id(5L).text("Отличная дрель").item(item).author(user).created(now).build();
+    }
+
+    @Benchmark
+    public ItemResponseDto itemToDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> itemPageToDto() {
+        return ItemMapper.toItemDto(items);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingToDto() {
+        return BookingMapper.toDto(booking);
+    }
+
+    @Benchmark
+    public BookingDto bookingShortToDto() {
+        return BookingMapper.toBookingDto(bookingShort);
+    }
+
+    @Benchmark
+    public CommentResponseDto commentToDto() {
+        return CommentMapper.toDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDtoOut itemRequestToDto() {
+        return ItemRequestMapper.toDto(itemRequest);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return UserMapper.toUserDto(user);
+    }
+
+    // Так выглядит строка проекции из BookingRepository.findLastAndNextByItemIds
+    private static final class Short implements BookingShort {
+        private final Long itemId;
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Long bookerId;
+
+        private Short(Long itemId, Long id, LocalDateTime start, LocalDateTime end, Long bookerId) {
+            this.itemId = itemId;
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.bookerId = bookerId;
+        }
+
+        @Override
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public LocalDateTime getStartDate() {
+            return start;
+        }
+
+        @Override
+        public LocalDateTime getEndDate() {
+            return end;
+        }
+
+        @Override
+        public Long getBookerId() {
+            return bookerId;
+        }
+
+        @Override
+        public String getKind() {
+            return LAST;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Работа шлюза над телом ответа сервера: прежний путь разбирал JSON в дерево LinkedHashMap и сериализовал его
+// заново, нынешний передаёт байты как есть. Ответы - JSON сервера для GET /users/{id} и GET /bookings/owner?size=50
+// Запуск: java -jar benchmarks/target/benchmarks.jar PassThroughBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PassThroughBenchmark {
+
+    private static final int PAGE = 50;
+
+    @Param({"user", "bookingsPage"})
+    private String response;
+
+    private final MappingJackson2HttpMessageConverter json = new MappingJackson2HttpMessageConverter(
+            Jackson2ObjectMapperBuilder.json().build());
+    private final ByteArrayHttpMessageConverter bytes = new ByteArrayHttpMessageConverter();
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream(16 * 1024);
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        if ("user".equals(response)) {
+            body = objectMapper.writeValueAsBytes(UserMapper.toUserDto(owner));
+            return;
+        }
+        List<BookingResponseDto> page = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            Item item = Item.builder().id(100L + i).name("Дрель №" + i).description("Дрель ударная")
+                    .available(true).owner(owner).build();
+            page.add(BookingMapper.toDto(Booking.builder().id(1000L + i).start(now.plusDays(i))
+                    .end(now.plusDays(i + 1)).item(item).booker(booker).status(BookingStatus.APPROVED).build()));
+        }
+        body = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public int parseAndWrite() throws IOException {
+        Object tree = json.read(Object.class, input(body));
+        output.reset();
+        json.write(tree, MediaType.APPLICATION_JSON, output(output));
+        return output.size();
+    }
+
+    @Benchmark
+    public int passThrough() throws IOException {
+        byte[] raw = bytes.read(byte[].class, input(body));
+        output.reset();
+        bytes.write(raw, MediaType.APPLICATION_JSON, output(output));
+        return output.size();
+    }
+
+    private static HttpInputMessage input(byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length);
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    private static HttpOutputMessage output(OutputStream body) {
+        HttpHeaders headers = new HttpHeaders();
+        return new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+}
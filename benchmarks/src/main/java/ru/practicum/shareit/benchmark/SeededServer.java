@@ -0,0 +1,135 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Сервер без веб-части поверх H2 из профиля test, заполненной объёмами порядка рабочей базы:
+// у каждого владельца страница вещей, у каждой вещи прошлые, текущие и будущие бронирования и отзывы
+@State(Scope.Benchmark)
+public class SeededServer {
+
+    static final int USERS = 1000;
+    static final int OWNERS = 200;
+    static final int ITEMS_PER_OWNER = 25;
+    static final int BOOKINGS_PER_ITEM = 10;
+    static final int COMMENTS_PER_ITEM = 2;
+    private static final int CHUNK = 1000;
+
+    private static final BookingStatus[] STATUSES = {BookingStatus.APPROVED, BookingStatus.APPROVED,
+            BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED};
+
+    ConfigurableApplicationContext context;
+    Long ownerId;
+    Long itemId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=warn")
+                .run();
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed() {
+        TransactionTemplate transaction = bean(TransactionTemplate.class);
+        UserRepository userRepository = bean(UserRepository.class);
+        ItemRepository itemRepository = bean(ItemRepository.class);
+        BookingRepository bookingRepository = bean(BookingRepository.class);
+        CommentRepository commentRepository = bean(CommentRepository.class);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(User.builder().name("user" + i).email("benchmark" + i + "@mail.ru").build());
+        }
+        users = saveInChunks(transaction, users, userRepository::saveAll);
+
+        List<Item> items = new ArrayList<>(OWNERS * ITEMS_PER_OWNER);
+        for (int owner = 0; owner < OWNERS; owner++) {
+            for (int i = 0; i < ITEMS_PER_OWNER; i++) {
+                items.add(Item.builder().name("item" + owner + "-" + i).description("Вещь для замеров")
+                        .available(true).owner(users.get(owner)).build());
+            }
+        }
+        items = saveInChunks(transaction, items, itemRepository::saveAll);
+
+        // Бронирования и отзывы ссылаются на вещи из той же транзакции, иначе вещь считается отсоединённой
+        LocalDateTime now = LocalDateTime.now();
+        int perChunk = CHUNK / BOOKINGS_PER_ITEM;
+        for (int from = 0; from < items.size(); from += perChunk) {
+            List<Item> chunk = items.subList(from, Math.min(from + perChunk, items.size()));
+            int offset = from;
+            List<User> people = users;
+            transaction.executeWithoutResult(status -> {
+                List<Booking> bookings = new ArrayList<>(chunk.size() * BOOKINGS_PER_ITEM);
+                List<Comment> comments = new ArrayList<>(chunk.size() * COMMENTS_PER_ITEM);
+                for (int i = 0; i < chunk.size(); i++) {
+                    Item item = itemRepository.getReferenceById(chunk.get(i).getId());
+                    int n = offset + i;
+                    for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                        // Половина бронирований в прошлом, одно текущее, остальные в будущем
+                        LocalDateTime start = now.plusDays(b - BOOKINGS_PER_ITEM / 2).minusHours(1);
+                        bookings.add(Booking.builder().start(start)
+                                .end(start.plusHours(b == BOOKINGS_PER_ITEM / 2 ? 2 : 1))
+                                .item(item).booker(people.get(OWNERS + (n + b) % (USERS - OWNERS)))
+                                .status(STATUSES[(n + b) % STATUSES.length]).build());
+                    }
+                    for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                        comments.add(Comment.builder().text("Отзыв " + c).item(item)
+                                .author(people.get(OWNERS + (n + c) % (USERS - OWNERS)))
+                                .created(now.minusDays(c + 1)).build());
+                    }
+                }
+                bookingRepository.saveAll(bookings);
+                commentRepository.saveAll(comments);
+            });
+        }
+
+        ownerId = users.get(0).getId();
+        itemId = items.get(0).getId();
+    }
+
+    private static <T> List<T> saveInChunks(TransactionTemplate transaction, List<T> entities, Saver<T> saver) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (int from = 0; from < entities.size(); from += CHUNK) {
+            List<T> chunk = entities.subList(from, Math.min(from + CHUNK, entities.size()));
+            saved.addAll(transaction.execute(status -> saver.saveAll(chunk)));
+        }
+        return saved;
+    }
+
+    private interface Saver<T> {
+        List<T> saveAll(Iterable<T> entities);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Запуск: java -jar benchmarks/target/benchmarks.jar ServiceBenchmark -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int PAGE = 20;
+
+    private ItemService itemService;
+    private BookingService bookingService;
+    private Long ownerId;
+    private Long itemId;
+
+    @Setup
+    public void setUp(SeededServer server) {
+        itemService = server.bean(ItemService.class);
+        bookingService = server.bean(BookingService.class);
+        ownerId = server.ownerId;
+        itemId = server.itemId;
+    }
+
+    // Страница вещей владельца с последним и следующим бронированием и отзывами
+    @Benchmark
+    public List<ItemResponseDto> allItemsOfOwner() {
+        return itemService.getAllItemsByUserId(ownerId, 0, PAGE);
+    }
+
+    @Benchmark
+    public ItemResponseDto itemOfOwner() {
+        return itemService.getItemById(itemId, ownerId);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> ownedItemBookingsByState(OwnedBookings bookings) {
+        return bookingService.getAllOwnedItemBookingsByState(ownerId, bookings.state, 0, PAGE);
+    }
+
+    // Состояния отдельно, чтобы замеры вещей не повторялись для каждого из них
+    @State(Scope.Benchmark)
+    public static class OwnedBookings {
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+        private String state;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Пул потоковых ответов без очереди: сверх shareit.streaming.max-concurrent сразу 503
+@Configuration
+public class StreamingConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    public StreamingConfig(@Value("${shareit.streaming.max-concurrent:16}") int maxConcurrent) {
+        executor.setThreadNamePrefix("streaming-");
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
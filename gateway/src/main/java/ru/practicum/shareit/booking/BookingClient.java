@@ -1,59 +1,94 @@
 package ru.practicum.shareit.booking;
 
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final GatewayResponseCache responseCache;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareItServerWebClient,
+                         RestTemplateBuilder builder, CloseableHttpClient shareItServerStreamingHttpClient,
+                         GatewayResponseCache responseCache) {
         super(
+                shareItServerWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build(),
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(shareItServerStreamingHttpClient))
                         .build()
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createBooking(BookingRequestDto bookingDto, long userId) {
+    public Mono<ResponseEntity<Object>> createBooking(BookingRequestDto bookingDto, long userId) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> acceptOrRejectBooking(long bookingId, Boolean approved, long userId) {
+    public Mono<ResponseEntity<Object>> createBookings(List<BookingRequestDto> bookingDtos, long userId) {
+        return post("/batch", userId, bookingDtos);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportAllOwnedItemBookings(long userId) {
+        return stream("/owner/export", userId);
+    }
+
+    public Mono<ResponseEntity<Object>> acceptOrRejectBooking(long bookingId, Boolean approved, long userId) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        // Подтверждённое бронирование попадает в карточку вещи у владельца
+        return responseCache.invalidating(patch("/" + bookingId + "?approved={approved}", userId, parameters, null),
+                response -> responseCache.readId(response, "/item/id")
+                        .map(itemId -> List.of("/items/" + itemId))
+                        .orElse(List.of()));
     }
 
-    public ResponseEntity<Object> getBookingById(long bookingId, long userId) {
+    public Mono<ResponseEntity<Object>> getBookingById(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllOwnedItemBookingsByState(Integer from, Integer size, String state, long userId) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllOwnedItemBookingsByState(Integer from, Integer size, String state,
+                                                                       @Nullable String cursor, long userId) {
+        return get("/owner" + listingQuery(cursor), userId, listingParameters(from, size, state, cursor));
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserAndState(Integer from, Integer size, String state, long userId) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserAndState(Integer from, Integer size, String state,
+                                                                     @Nullable String cursor, long userId) {
+        return get(listingQuery(cursor), userId, listingParameters(from, size, state, cursor));
+    }
+
+    private static String listingQuery(@Nullable String cursor) {
+        String query = "?state={state}&from={from}&size={size}";
+        return cursor != null ? query + "&cursor={cursor}" : query;
+    }
+
+    private static Map<String, Object> listingParameters(Integer from, Integer size, String state,
+                                                         @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
 
 }
@@ -6,10 +6,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -20,39 +25,55 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestBody @Valid BookingRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestBody @Valid BookingRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.createBooking(requestDto, userId);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody @NotEmpty @Size(max = 500)
+                                                       List<@Valid BookingRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.createBookings(requestDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> acceptOrRejectBooking(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                        @PathVariable Long bookingId,
-                                                        @RequestParam(name = "approved") Boolean approved) {
+    public Mono<ResponseEntity<Object>> acceptOrRejectBooking(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                              @PathVariable Long bookingId,
+                                                              @RequestParam(name = "approved") Boolean approved) {
         return bookingClient.acceptOrRejectBooking(bookingId, approved, userId);
     }
 
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                       @PathVariable Long bookingId) {
         return bookingClient.getBookingById(bookingId, userId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllOwnedItemBookingsByState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                                 @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                                                 @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                                 @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
-        return bookingClient.getAllOwnedItemBookingsByState(from, size, state, userId);
+    public Mono<ResponseEntity<Object>> getAllOwnedItemBookingsByState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                       @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                       @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                       @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                                       @RequestParam(name = "cursor", required = false) String cursor) {
+        return bookingClient.getAllOwnedItemBookingsByState(from, size, state, cursor, userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportAllOwnedItemBookings(@RequestHeader(name = "X-Sharer-User-Id") Long userId) {
+        log.info("Export all owned item bookings, userId={}", userId);
+        return bookingClient.exportAllOwnedItemBookings(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUserAndState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                               @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                                               @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                               @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
-        return bookingClient.getAllBookingsByUserAndState(from, size, state, userId);
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserAndState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                     @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                     @RequestParam(name = "size", defaultValue = "10") @Positive Integer size,
+                                                                     @RequestParam(name = "cursor", required = false) String cursor) {
+        return bookingClient.getAllBookingsByUserAndState(from, size, state, cursor, userId);
     }
 }
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Кеш ответов сервера на GET отдельных ресурсов. Ответ зависит от пользователя (владелец видит бронирования
+// своей вещи), поэтому ключ - путь ресурса вместе с X-Sharer-User-Id, а сбрасывается ресурс для всех пользователей
+@Component
+@Slf4j
+public class GatewayResponseCache {
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedResponse> cache;
+    // Ответ, загрузка которого пересеклась со сбросом, может быть уже устаревшим и в кеш не попадает
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public GatewayResponseCache(@Value("${shareit.response-cache.enabled:true}") boolean enabled,
+                                @Value("${shareit.response-cache.max-size:32MB}") DataSize maxSize,
+                                @Value("${shareit.response-cache.ttl:30s}") Duration ttl,
+                                ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() * 2 + response.weight())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Mono<ResponseEntity<Object>> get(String resource, @Nullable Long userId,
+                                            Supplier<Mono<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = key(resource, userId);
+        return Mono.defer(() -> {
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached.toResponse());
+            }
+            long seenInvalidations = invalidations.get();
+            return loader.get().doOnNext(response -> {
+                if (response.getStatusCode() == HttpStatus.OK && response.getBody() instanceof byte[]
+                        && invalidations.get() == seenInvalidations) {
+                    cache.put(key, new CachedResponse(response.getHeaders(), (byte[]) response.getBody()));
+                }
+            });
+        });
+    }
+
+    public Mono<ResponseEntity<Object>> invalidating(Mono<ResponseEntity<Object>> write, String... resources) {
+        return invalidating(write, response -> List.of(resources));
+    }
+
+    // Ресурсы сбрасываются до того, как ответ на изменение уйдёт клиенту, поэтому его следующий GET
+    // уже не получит старые данные. При ошибке сбрасывается то, что известно без ответа сервера
+    public Mono<ResponseEntity<Object>> invalidating(Mono<ResponseEntity<Object>> write,
+                                                    Function<ResponseEntity<Object>, Collection<String>> resources) {
+        return write
+                .doOnNext(response -> resources.apply(response).forEach(this::invalidate))
+                .doOnError(e -> resources.apply(null).forEach(this::invalidate));
+    }
+
+    // Ресурс с "/" на конце, например "/items/", сбрасывает все ресурсы этого вида
+    public void invalidate(String resource) {
+        invalidations.incrementAndGet();
+        String prefix = resource.endsWith("/") ? resource : resource + '#';
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    // Идентификатор из JSON-ответа сервера, например "/item/id" для бронирования
+    public Optional<Long> readId(@Nullable ResponseEntity<Object> response, String pointer) {
+        if (response == null || !response.getStatusCode().is2xxSuccessful()
+                || !(response.getBody() instanceof byte[])) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode id = objectMapper.readTree((byte[]) response.getBody()).at(pointer);
+            return id.canConvertToLong() && id.asLong() > 0 ? Optional.of(id.asLong()) : Optional.empty();
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать {} из ответа сервера: {}", pointer, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String key(String resource, @Nullable Long userId) {
+        return resource + '#' + (userId != null ? userId : "");
+    }
+
+    private static final class CachedResponse {
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private CachedResponse(HttpHeaders headers, byte[] body) {
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(headers);
+            // Дату ответа проставит Tomcat при каждой выдаче из кеша
+            copy.remove(HttpHeaders.DATE);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(copy);
+            this.body = body;
+        }
+
+        int weight() {
+            int weight = 64 + body.length;
+            for (var header : headers.entrySet()) {
+                weight += header.getKey().length() * 2;
+                for (String value : header.getValue()) {
+                    weight += value.length() * 2;
+                }
+            }
+            return weight;
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Свои ограничение одновременных запросов и автоматический выключатель у каждого клиента сервера
+// (бронирования, вещи, пользователи, запросы): медленные бронирования не занимают соединения остальных
+@Slf4j
+public class ResilienceFilter implements ExchangeFilterFunction {
+
+    static final Set<String> CLIENTS = Set.of("bookings", "items", "users", "requests");
+
+    private final String serverPath;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final long retryAfterOpenSeconds;
+    private final MeterRegistry meterRegistry;
+    private final ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+
+    public ResilienceFilter(String serverUrl, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                            Duration waitInOpenState, MeterRegistry meterRegistry) {
+        this.serverPath = URI.create(serverUrl).getPath();
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.retryAfterOpenSeconds = waitInOpenState.toSeconds();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String client = client(request.url());
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(client);
+        Bulkhead bulkhead = bulkheads.bulkhead(client);
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return reject(client, "circuit-breaker", "Сервер не справляется с запросами, повторите позже",
+                        retryAfterOpenSeconds);
+            }
+            if (!bulkhead.tryAcquirePermission()) {
+                circuitBreaker.releasePermission();
+                return reject(client, "bulkhead", "Слишком много одновременных запросов, повторите позже", 1);
+            }
+            // Место в ограничении занято, пока тело ответа не прочитано или не отброшено, а не до заголовков
+            Runnable release = releaseOnce(bulkhead);
+            AtomicBoolean responded = new AtomicBoolean();
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .map(response -> {
+                        responded.set(true);
+                        record(circuitBreaker, start, response);
+                        return response.mutate().body(body -> body.doFinally(signal -> release.run())).build();
+                    })
+                    .doOnError(e -> circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e))
+                    .doFinally(signal -> {
+                        if (!responded.get()) {
+                            if (signal == SignalType.CANCEL) {
+                                circuitBreaker.releasePermission();
+                            }
+                            release.run();
+                        }
+                    });
+        });
+    }
+
+    // Ошибка сервера засчитывается выключателю, но сам ответ всё равно передаётся клиенту
+    private static void record(CircuitBreaker circuitBreaker, long start, ClientResponse response) {
+        long duration = System.nanoTime() - start;
+        if (response.rawStatusCode() >= 500) {
+            circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, new ServerErrorResponse(response.rawStatusCode()));
+        } else {
+            circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Runnable releaseOnce(Bulkhead bulkhead) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+            }
+        };
+    }
+
+    private Mono<ClientResponse> reject(String client, String reason, String message, long retryAfterSeconds) {
+        log.warn("Запрос к серверу отклонён шлюзом ({}, {})", client, reason);
+        Counter.builder("shareit.gateway.rejected")
+                .description("Запросы к серверу, отклонённые шлюзом без обращения к серверу")
+                .tag("client", client)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE, strategies)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(retryAfterSeconds, 1)))
+                .body("{\"error\":\"" + message + "\"}")
+                .build());
+    }
+
+    private String client(URI url) {
+        String path = url.getPath().substring(url.getPath().startsWith(serverPath) ? serverPath.length() : 0);
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        String client = end < 0 ? path.substring(start) : path.substring(start, end);
+        return CLIENTS.contains(client) ? client : "other";
+    }
+
+    private static final class ServerErrorResponse extends RuntimeException {
+        private ServerErrorResponse(int status) {
+            super("Сервер ответил " + status, null, false, false);
+        }
+    }
+}
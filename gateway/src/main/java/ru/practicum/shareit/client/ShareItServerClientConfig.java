@@ -0,0 +1,160 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class ShareItServerClientConfig {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // Один пул соединений с сервером на все клиенты шлюза
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit-server.client.max-connections:500}") int maxConnections,
+            @Value("${shareit-server.client.pending-acquire-max-count:10000}") int pendingAcquireMaxCount,
+            @Value("${shareit-server.client.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.client.max-idle-time:30s}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .build();
+    }
+
+    // Потоковые импорт и выгрузка идут через RestTemplate с HttpComponents, у которого по умолчанию всего
+    // 5 соединений на сервер: общий пул побольше, ожидание свободного соединения ограничено
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItServerStreamingHttpClient(
+            @Value("${shareit-server.streaming.max-connections:64}") int maxConnections,
+            @Value("${shareit-server.client.pending-acquire-timeout:10s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.client.connect-timeout:5s}") Duration connectTimeout) {
+        return HttpClients.custom()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout((int) pendingAcquireTimeout.toMillis())
+                        .setConnectTimeout((int) connectTimeout.toMillis())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public WebClient shareItServerWebClient(WebClient.Builder builder,
+                                            ConnectionProvider shareItServerConnectionProvider,
+                                            @Value("${shareit-server.url}") String serverUrl,
+                                            @Value("${shareit-server.client.connect-timeout:5s}") Duration connectTimeout,
+                                            @Value("${shareit-server.client.response-timeout:30s}") Duration responseTimeout,
+                                            @Value("${shareit-server.client.request-format:smile}") String requestFormat,
+                                            Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                            @Value("${shareit.single-flight.enabled:true}") boolean singleFlight,
+                                            CircuitBreakerRegistry shareItServerCircuitBreakers,
+                                            BulkheadRegistry shareItServerBulkheads,
+                                            @Value("${shareit-server.resilience.circuit-breaker.wait-in-open-state:10s}")
+                                            Duration waitInOpenState,
+                                            MeterRegistry meterRegistry) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        builder.baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, requestContentType(requestFormat))
+                // Smile с теми же настройками Jackson, что и JSON: даты строками ISO, как их ждёт сервер
+                .codecs(codecs -> codecs.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(
+                        objectMapperBuilder.factory(new SmileFactory()).build(), SMILE)));
+        if (singleFlight) {
+            builder.filter(new SingleFlightFilter(meterRegistry));
+        }
+        // Совмещённые одинаковые GET занимают в ограничении одновременных запросов одно место
+        builder.filter(new ResilienceFilter(serverUrl, shareItServerCircuitBreakers, shareItServerBulkheads,
+                waitInOpenState, meterRegistry));
+        return builder.build();
+    }
+
+    // Тела запросов к серверу в Smile короче JSON вдвое и разбираются сервером быстрее
+    private static String requestContentType(String requestFormat) {
+        switch (requestFormat) {
+            case "smile":
+                return SMILE.toString();
+            case "json":
+                return MediaType.APPLICATION_JSON_VALUE;
+            default:
+                throw new IllegalArgumentException("Неизвестный формат запросов к серверу: " + requestFormat);
+        }
+    }
+
+    // Выключатель размыкается, когда среди последних вызовов клиента слишком много ошибок (5xx, таймауты,
+    // недоступность сервера) или медленных ответов, и до паузы wait-in-open-state шлюз сразу отвечает 503
+    @Bean
+    public CircuitBreakerRegistry shareItServerCircuitBreakers(Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        String prefix = "shareit-server.resilience.circuit-breaker.";
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(binder.bind(prefix + "sliding-window-size", Integer.class).orElse(50))
+                .minimumNumberOfCalls(binder.bind(prefix + "minimum-number-of-calls", Integer.class).orElse(20))
+                .failureRateThreshold(binder.bind(prefix + "failure-rate-threshold", Float.class).orElse(50f))
+                .slowCallRateThreshold(binder.bind(prefix + "slow-call-rate-threshold", Float.class).orElse(80f))
+                .slowCallDurationThreshold(binder.bind(prefix + "slow-call-duration", Duration.class)
+                        .orElse(Duration.ofSeconds(5)))
+                .waitDurationInOpenState(binder.bind(prefix + "wait-in-open-state", Duration.class)
+                        .orElse(Duration.ofSeconds(10)))
+                .permittedNumberOfCallsInHalfOpenState(binder.bind(prefix + "permitted-calls-in-half-open-state",
+                        Integer.class).orElse(5))
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        registry.getEventPublisher().onEntryAdded(added -> added.getAddedEntry().getEventPublisher()
+                .onStateTransition(event -> log.warn("Выключатель клиента {}: {}", event.getCircuitBreakerName(),
+                        event.getStateTransition())));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    // У каждого клиента своё ограничение одновременных запросов: shareit-server.resilience.bulkhead.<клиент>.*
+    // переопределяет общие значения. Сверх ограничения шлюз не ждёт, а сразу отвечает 503
+    @Bean
+    public BulkheadRegistry shareItServerBulkheads(Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        String prefix = "shareit-server.resilience.bulkhead.";
+        int maxConcurrentCalls = binder.bind(prefix + "max-concurrent-calls", Integer.class).orElse(100);
+        Duration maxWait = binder.bind(prefix + "max-wait", Duration.class).orElse(Duration.ZERO);
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        for (String client : ResilienceFilter.CLIENTS) {
+            registry.bulkhead(client, BulkheadConfig.custom()
+                    .maxConcurrentCalls(binder.bind(prefix + client + ".max-concurrent-calls", Integer.class)
+                            .orElse(maxConcurrentCalls))
+                    .maxWaitDuration(binder.bind(prefix + client + ".max-wait", Duration.class).orElse(maxWait))
+                    .build());
+        }
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Одинаковые одновременные GET к серверу выполняются одним запросом: остальные вызовы ждут его ответ.
+// Ответ читается целиком и раздаётся каждому вызову как отдельный ClientResponse
+public class SingleFlightFilter implements ExchangeFilterFunction {
+
+    private final Map<String, Mono<Snapshot>> inFlight = new ConcurrentHashMap<>();
+    private final ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+    private final Counter upstream;
+    private final Counter collapsed;
+
+    public SingleFlightFilter(MeterRegistry meterRegistry) {
+        this.upstream = Counter.builder("shareit.gateway.single-flight")
+                .description("GET-запросы к серверу, выполненные шлюзом")
+                .tag("role", "upstream")
+                .register(meterRegistry);
+        this.collapsed = Counter.builder("shareit.gateway.single-flight")
+                .description("GET-запросы, получившие ответ уже выполняющегося такого же запроса")
+                .tag("role", "collapsed")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.single-flight.in-flight", inFlight, Map::size)
+                .description("Выполняющиеся GET-запросы к серверу")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+        String key = request.url() + "#" + request.headers().getFirst("X-Sharer-User-Id");
+        return Mono.defer(() -> {
+            Mono<Snapshot> created = next.exchange(request)
+                    .flatMap(Snapshot::of)
+                    .doFinally(signal -> inFlight.remove(key))
+                    .cache();
+            Mono<Snapshot> shared = inFlight.putIfAbsent(key, created);
+            if (shared == null) {
+                upstream.increment();
+                shared = created;
+            } else {
+                collapsed.increment();
+            }
+            return shared.map(this::toResponse);
+        });
+    }
+
+    private ClientResponse toResponse(Snapshot snapshot) {
+        ClientResponse.Builder response = ClientResponse.create(snapshot.status, strategies)
+                .headers(headers -> headers.addAll(snapshot.headers));
+        if (snapshot.body.length > 0) {
+            response.body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(snapshot.body)));
+        }
+        return response.build();
+    }
+
+    private static final class Snapshot {
+        private final int status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private Snapshot(int status, HttpHeaders headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static Mono<Snapshot> of(ClientResponse response) {
+            HttpHeaders headers = HttpHeaders.readOnlyHttpHeaders(response.headers().asHttpHeaders());
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> new Snapshot(response.rawStatusCode(), headers, body));
+        }
+    }
+}
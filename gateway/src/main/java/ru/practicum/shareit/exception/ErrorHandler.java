@@ -1,11 +1,14 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import javax.validation.ConstraintViolationException;
+import java.util.Map;
 
 @RestControllerAdvice
 @Slf4j
@@ -16,4 +19,11 @@ public class ErrorHandler {
         log.info(ex.getMessage());
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> streamingRejected(TaskRejectedException ex) {
+        log.warn("Все потоки выгрузки заняты: {}", ex.getMessage());
+        return new ResponseEntity<>(Map.of("error", "Слишком много одновременных выгрузок, повторите позже"),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
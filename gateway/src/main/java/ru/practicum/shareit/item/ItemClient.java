@@ -1,44 +1,130 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    private final RestTemplate streamingRest;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final GatewayResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareItServerWebClient,
+                      CloseableHttpClient shareItServerStreamingHttpClient, ObjectMapper objectMapper,
+                      Validator validator, GatewayResponseCache responseCache) {
+        super(shareItServerWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+        // Импорт передаётся серверу по мере чтения: без буферизации тела и без перехватчиков RestTemplateBuilder,
+        // которые тоже буферизуют тело запроса
+        HttpComponentsClientHttpRequestFactory streamingFactory =
+                new HttpComponentsClientHttpRequestFactory(shareItServerStreamingHttpClient);
+        streamingFactory.setBufferRequestBody(false);
+        this.streamingRest = new RestTemplate(streamingFactory);
+        this.streamingRest.setUriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX));
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.responseCache = responseCache;
+    }
+
+    public Mono<ResponseEntity<Object>> createItem(ItemRequestDto itemDto, long userId) {
+        // Новая вещь появляется в ответах на запрос, к которому она создана
+        return responseCache.invalidating(post("", userId, itemDto), response -> itemDto.getRequestId() != null
+                ? List.of("/requests/" + itemDto.getRequestId())
+                : List.of());
+    }
+
+    public ResponseEntity<Object> importItems(InputStream items, long userId) {
+        Set<Long> requestIds = new HashSet<>();
+        try {
+            return streamingRest.execute("/import", HttpMethod.POST, request -> {
+                request.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+                request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                ((StreamingHttpOutputMessage) request).setBody(body -> writeValidItems(items, body, requestIds));
+            }, response -> ResponseEntity.status(response.getRawStatusCode())
+                    .headers(forwardedHeaders(response.getHeaders()))
+                    .body(StreamUtils.copyToByteArray(response.getBody())));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getRawStatusCode())
+                    .headers(forwardedHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        } catch (ValidationException e) {
+            // Соединение с сервером уже прервано, поэтому его транзакция импорта откатывается целиком
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } finally {
+            requestIds.forEach(requestId -> responseCache.invalidate("/requests/" + requestId));
+        }
     }
 
-    public ResponseEntity<Object> createItem(ItemRequestDto itemDto, long userId) {
-        return post("", userId, itemDto);
+    private void writeValidItems(InputStream input, OutputStream body, Set<Long> requestIds) throws IOException {
+        ItemImportReader items = new ItemImportReader(objectMapper, input);
+        long index = 0;
+        while (items.hasNext()) {
+            ItemRequestDto item = items.next();
+            Set<ConstraintViolation<ItemRequestDto>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException("Вещь №" + index + ": " + violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .collect(Collectors.joining(", ")), violations);
+            }
+            if (item.getRequestId() != null) {
+                requestIds.add(item.getRequestId());
+            }
+            body.write(objectMapper.writeValueAsBytes(item));
+            body.write('\n');
+            index++;
+        }
     }
 
-    public ResponseEntity<Object> updateItemById(long itemId, ItemRequestDto itemDto, long userId) {
-        return patch("/" + itemId, userId, itemDto);
+    public Mono<ResponseEntity<Object>> updateItemById(long itemId, ItemRequestDto itemDto, long userId) {
+        // Изменённая вещь показывается и в ответах на запрос, к которому она создана
+        return responseCache.invalidating(patch("/" + itemId, userId, itemDto), response -> {
+            List<String> resources = new ArrayList<>();
+            resources.add(API_PREFIX + "/" + itemId);
+            responseCache.readId(response, "/requestId").ifPresent(requestId -> resources.add("/requests/" + requestId));
+            return resources;
+        });
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(long itemId, long userId) {
+        return responseCache.get(API_PREFIX + "/" + itemId, userId, () -> get("/" + itemId, userId));
     }
 
-    public ResponseEntity<Object> getAllItemsByUserId(Integer from, Integer size, long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemsByUserId(Integer from, Integer size, long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,7 +132,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItem(Integer from, Integer size, String text) {
+    public Mono<ResponseEntity<Object>> searchItem(Integer from, Integer size, String text) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -55,8 +141,9 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> createComment(long itemId, CommentRequestDto commentDto, long userId) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Mono<ResponseEntity<Object>> createComment(long itemId, CommentRequestDto commentDto, long userId) {
+        return responseCache.invalidating(post("/" + itemId + "/comment", userId, commentDto),
+                API_PREFIX + "/" + itemId);
     }
 
 }
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Ограничение частоты запросов одного пользователя (X-Sharer-User-Id, без него - адрес клиента) по маршрутам из
+// shareit.rate-limit.routes.<маршрут>.*. Лишние запросы получают 429 и до сервера не доходят
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "shareit.rate-limit.";
+
+    private final boolean enabled;
+    private final Map<String, RouteLimit> routes;
+    private final Cache<String, TokenBucket> buckets;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        this.enabled = binder.bind(PREFIX + "enabled", Boolean.class).orElse(true);
+        this.routes = binder.bind(PREFIX + "routes", Bindable.mapOf(String.class, RouteLimit.class)).orElse(Map.of());
+        this.meterRegistry = meterRegistry;
+        routes.forEach(RateLimitFilter::validate);
+        // Корзина живёт, пока не наполнится заново: наполненная ничем не отличается от новой, поэтому
+        // её удаление ничего не меняет. Ограничения по числу корзин нет - оно сбрасывало бы живые корзины
+        this.buckets = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, TokenBucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+                        return bucket.refillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime,
+                                                  long currentDuration) {
+                        return bucket.refillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenBucket bucket, long currentTime,
+                                                long currentDuration) {
+                        return bucket.refillNanos();
+                    }
+                })
+                .build();
+    }
+
+    private static void validate(String name, RouteLimit route) {
+        if (!StringUtils.hasText(route.getPath()) || !(route.getPerSecond() > 0) || route.getBurst() < 1) {
+            throw new IllegalStateException(String.format("Некорректное ограничение частоты %s%s: path=%s, "
+                    + "per-second=%s (нужно > 0), burst=%s (нужно >= 1)", PREFIX + "routes.", name,
+                    route.getPath(), route.getPerSecond(), route.getBurst()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        for (Map.Entry<String, RouteLimit> entry : routes.entrySet()) {
+            RouteLimit route = entry.getValue();
+            if (!matches(route, request)) {
+                continue;
+            }
+            String user = request.getHeader("X-Sharer-User-Id");
+            String key = entry.getKey() + '#' + (user != null ? user : request.getRemoteAddr());
+            long wait = buckets.get(key, k -> new TokenBucket(route.getPerSecond(), route.getBurst()))
+                    .tryAcquire(System.nanoTime());
+            if (wait > 0) {
+                reject(entry.getKey(), key, wait, response);
+                return;
+            }
+            break;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean matches(RouteLimit route, HttpServletRequest request) {
+        return (route.getMethod() == null || route.getMethod().equalsIgnoreCase(request.getMethod()))
+                && pathMatcher.match(route.getPath(), path(request));
+    }
+
+    // Путь так, как его сопоставит Spring MVC: без контекста приложения, ";..." и повторных "/",
+    // а "/items/search/" тот же маршрут, что и "/items/search"
+    private String path(HttpServletRequest request) {
+        String path = pathHelper.getPathWithinApplication(request);
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private void reject(String route, String key, long waitNanos, HttpServletResponse response) throws IOException {
+        log.debug("Превышена частота запросов: {}", key);
+        Counter.builder("shareit.gateway.rate-limited")
+                .description("Запросы, отклонённые ограничением частоты")
+                .tag("route", route)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"Слишком много запросов, повторите позже\"}");
+    }
+}
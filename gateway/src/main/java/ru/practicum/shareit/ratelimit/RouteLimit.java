@@ -0,0 +1,13 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.lang.Nullable;
+
+@Data
+public class RouteLimit {
+    private String path;
+    @Nullable
+    private String method;
+    private double perSecond;
+    private int burst;
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Корзина токенов в виде GCRA: всё состояние - расчётное время прихода следующего запроса, которое меняется
+// одним compareAndSet без блокировок. Корзина на burst запросов пополняется со скоростью perSecond
+class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double perSecond, int burst) {
+        this.interval = Math.max(1, (long) (1_000_000_000L / perSecond));
+        this.tolerance = interval * (burst - 1L);
+    }
+
+    // Через столько после последнего запроса опустевшая корзина наполняется целиком
+    long refillNanos() {
+        return tolerance + interval;
+    }
+
+    // 0, если токен взят, иначе сколько наносекунд ждать следующего
+    long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = Math.max(arrival, now);
+            if (base - now > tolerance) {
+                return base - tolerance - now;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + interval)) {
+                return 0;
+            }
+        }
+    }
+}
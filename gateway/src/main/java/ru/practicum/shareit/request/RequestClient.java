@@ -2,12 +2,12 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
 import java.util.Map;
 
@@ -16,29 +16,28 @@ public class RequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
+    private final GatewayResponseCache responseCache;
+
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareItServerWebClient,
+                         GatewayResponseCache responseCache) {
+        super(shareItServerWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createItemRequest(ItemRequestDtoIn itemRequestDtoIn, long userId) {
+    public Mono<ResponseEntity<Object>> createItemRequest(ItemRequestDtoIn itemRequestDtoIn, long userId) {
         return post("", userId, itemRequestDtoIn);
     }
 
-    public ResponseEntity<Object> getItemRequestByIdWithResponses(long requestId, long userId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getItemRequestByIdWithResponses(long requestId, long userId) {
+        return responseCache.get(API_PREFIX + "/" + requestId, userId, () -> get("/" + requestId, userId));
     }
 
-    public ResponseEntity<Object> getAllOwnedRequestsWithResponses(long userId) {
+    public Mono<ResponseEntity<Object>> getAllOwnedRequestsWithResponses(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllAvailableItemRequests(Integer from, Integer size, long userId) {
+    public Mono<ResponseEntity<Object>> getAllAvailableItemRequests(Integer from, Integer size, long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
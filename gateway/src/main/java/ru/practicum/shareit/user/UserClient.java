@@ -2,46 +2,49 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
+    // В ответах на вещи есть имена авторов отзывов, а вещи и запросы удалённого пользователя
+    // сервер удаляет каскадом, поэтому они сбрасываются целиком
+    private static final String ITEMS = "/items/";
+    private static final String REQUESTS = "/requests/";
+
+    private final GatewayResponseCache responseCache;
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareItServerWebClient,
+                      GatewayResponseCache responseCache) {
+        super(shareItServerWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getUserById(long userId) {
+        return responseCache.get(API_PREFIX + "/" + userId, null, () -> get("/" + userId));
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDto userDto) {
-        return patch("/" + userId, userId, userDto);
+    public Mono<ResponseEntity<Object>> updateUser(long userId, UserDto userDto) {
+        return responseCache.invalidating(patch("/" + userId, userId, userDto), API_PREFIX + "/" + userId, ITEMS);
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
-        return delete("/" + userId);
+    public Mono<ResponseEntity<Object>> deleteUser(long userId) {
+        return responseCache.invalidating(delete("/" + userId), API_PREFIX + "/" + userId, ITEMS, REQUESTS);
     }
 
 }
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+
+class ResilienceFilterTest {
+
+    private static final ClientRequest REQUEST =
+            ClientRequest.create(HttpMethod.GET, URI.create("http://localhost:9090/bookings/1")).build();
+
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private ResilienceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenState(Duration.ofSeconds(30))
+                .build());
+        bulkheads = BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(1).build());
+        filter = new ResilienceFilter("http://localhost:9090", circuitBreakers, bulkheads, Duration.ofSeconds(30),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void filter_whenBodyNotRead_thenBulkheadPermitHeld() {
+        ClientResponse response = filter.filter(REQUEST, respond(HttpStatus.OK)).block();
+        Bulkhead bulkhead = bulkheads.bulkhead("bookings");
+
+        Assertions.assertEquals(0, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                filter.filter(REQUEST, respond(HttpStatus.OK)).block().statusCode());
+
+        Assertions.assertEquals("{}", response.bodyToMono(String.class).block());
+        Assertions.assertEquals(1, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void filter_whenBodyReleased_thenBulkheadPermitReturnedOnce() {
+        ClientResponse response = filter.filter(REQUEST, respond(HttpStatus.OK)).block();
+
+        response.releaseBody().block();
+        response.releaseBody().onErrorResume(e -> Mono.empty()).block();
+
+        Assertions.assertEquals(1, bulkheads.bulkhead("bookings").getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void filter_whenExchangeFails_thenBulkheadPermitReturned() {
+        Mono<ClientResponse> failed = filter.filter(REQUEST, request -> Mono.error(new IllegalStateException()));
+
+        Assertions.assertThrows(IllegalStateException.class, failed::block);
+        Assertions.assertEquals(1, bulkheads.bulkhead("bookings").getMetrics().getAvailableConcurrentCalls());
+        Assertions.assertEquals(1, circuitBreakers.circuitBreaker("bookings").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void filter_whenServerError_thenResponsePassedAndCountedAsFailure() {
+        ClientResponse response = filter.filter(REQUEST, respond(HttpStatus.INTERNAL_SERVER_ERROR)).block();
+
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.statusCode());
+        Assertions.assertEquals("{}", response.bodyToMono(String.class).block());
+        Assertions.assertEquals(1, circuitBreakers.circuitBreaker("bookings").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void filter_whenCircuitOpen_then503WithConfiguredRetryAfter() {
+        circuitBreakers.circuitBreaker("bookings").transitionToOpenState();
+        int[] calls = {0};
+
+        ClientResponse response = filter.filter(REQUEST, request -> {
+            calls[0]++;
+            return Mono.just(response(HttpStatus.OK));
+        }).block();
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.statusCode());
+        Assertions.assertEquals("30", response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(0, calls[0]);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker("bookings").getState());
+    }
+
+    private static ExchangeFunction respond(HttpStatus status) {
+        return request -> Mono.just(response(status));
+    }
+
+    private static ClientResponse response(HttpStatus status) {
+        return ClientResponse.create(status, ExchangeStrategies.withDefaults()).body("{}").build();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+    private MockEnvironment environment;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("shareit.rate-limit.routes.search.path", "/items/search")
+                .withProperty("shareit.rate-limit.routes.search.method", "GET")
+                .withProperty("shareit.rate-limit.routes.search.per-second", "0.001")
+                .withProperty("shareit.rate-limit.routes.search.burst", "1");
+    }
+
+    @Test
+    void doFilter_whenLimitExceeded_then429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(environment, new SimpleMeterRegistry());
+
+        Assertions.assertEquals(HttpStatus.OK.value(), send(filter, "/items/search").getStatus());
+        MockHttpServletResponse response = send(filter, "/items/search");
+
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        Assertions.assertEquals("1000", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void doFilter_whenPathSpelledDifferently_thenSameLimit() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(environment, new SimpleMeterRegistry());
+        send(filter, "/items/search");
+
+        for (String uri : new String[]{"/items/search/", "//items//search", "/items/search;jsessionid=1",
+                "/items/%73earch"}) {
+            Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send(filter, uri).getStatus(), uri);
+        }
+    }
+
+    @Test
+    void doFilter_whenContextPath_thenPathWithinApplicationMatched() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(environment, new SimpleMeterRegistry());
+        MockHttpServletRequest request = request("/api/items/search");
+        request.setContextPath("/api");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send(filter, "/items/search").getStatus());
+    }
+
+    @Test
+    void doFilter_whenOtherUser_thenOwnLimit() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(environment, new SimpleMeterRegistry());
+        send(filter, "/items/search");
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/search");
+        request.addHeader("X-Sharer-User-Id", "2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    @Test
+    void constructor_whenBurstLessThanOne_thenIllegalStateException() {
+        environment.setProperty("shareit.rate-limit.routes.search.burst", "0");
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new RateLimitFilter(environment, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void constructor_whenRateNotPositive_thenIllegalStateException() {
+        environment.setProperty("shareit.rate-limit.routes.search.per-second", "0");
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new RateLimitFilter(environment, new SimpleMeterRegistry()));
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(uri), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("X-Sharer-User-Id", "1");
+        return request;
+    }
+}
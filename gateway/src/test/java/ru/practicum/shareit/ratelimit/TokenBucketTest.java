@@ -0,0 +1,100 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long NOW = 42 * SECOND;
+
+    @Test
+    void tryAcquire_whenBurstSpent_thenRejectedUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0, bucket.tryAcquire(NOW));
+        }
+        Assertions.assertEquals(SECOND / 10, bucket.tryAcquire(NOW));
+        Assertions.assertEquals(SECOND / 20, bucket.tryAcquire(NOW + SECOND / 20));
+    }
+
+    @Test
+    void tryAcquire_whenRejected_thenNoTokenTaken() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+
+        Assertions.assertEquals(0, bucket.tryAcquire(NOW));
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(bucket.tryAcquire(NOW) > 0);
+        }
+        Assertions.assertEquals(0, bucket.tryAcquire(NOW + SECOND / 10));
+    }
+
+    @Test
+    void tryAcquire_thenRefilledAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire(NOW);
+        }
+
+        long later = NOW + 3 * SECOND / 10;
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, bucket.tryAcquire(later));
+        }
+        Assertions.assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void tryAcquire_whenIdleLongerThanRefill_thenOnlyBurstAdmitted() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        Assertions.assertEquals(0, bucket.tryAcquire(NOW));
+        Assertions.assertEquals(SECOND / 2, bucket.refillNanos());
+
+        long later = NOW + 60 * SECOND;
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(0, bucket.tryAcquire(later));
+        }
+        Assertions.assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void tryAcquire_whenConcurrent_thenExactlyBurstAdmitted() throws Exception {
+        int burst = 100;
+        int threads = 8;
+        TokenBucket bucket = new TokenBucket(1, burst);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < burst; i++) {
+                        if (bucket.tryAcquire(NOW) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(burst, admitted.get());
+    }
+}
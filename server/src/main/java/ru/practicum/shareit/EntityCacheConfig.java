@@ -0,0 +1,23 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheManagerCustomizer() {
+        // Hibernate закрывает менеджер кешей вместе с фабрикой сессий, поэтому у каждого контекста он свой
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER,
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                        .getCacheManager(URI.create("shareit-" + UUID.randomUUID()), getClass().getClassLoader()));
+    }
+}
@@ -1,14 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.util.BookingCursor;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -17,7 +26,10 @@ import java.util.List;
 @Slf4j
 public class BookingController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingResponseDto createBooking(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
@@ -26,6 +38,12 @@ public class BookingController {
         return BookingMapper.toDto(bookingService.createBooking(booking, userId, bookingRequestDto.getItemId()));
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                      @RequestBody List<BookingRequestDto> bookingRequestDtos) {
+        return bookingService.createBookings(bookingRequestDtos, userId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto acceptOrRejectBooking(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                                     @PathVariable Long bookingId,
@@ -40,19 +58,54 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getAllBookingsByUserAndState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                                 @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                                                 @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                                 @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return BookingMapper.toDto(bookingService.getAllBookingsByUserAndState(userId, state, from, size));
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingsByUserAndState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                                 @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                                 @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                                 @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                                 @RequestParam(name = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return withNextCursor(bookingService.getAllBookingsByUserAndStateAfter(userId, state, cursor, size), size);
+        }
+        return ResponseEntity.ok(bookingService.getAllBookingsByUserAndState(userId, state, from, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllOwnedItemBookingsByState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
-                                                                   @RequestParam(name = "state", defaultValue = "ALL") String state,
-                                                                   @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                                   @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        return BookingMapper.toDto(bookingService.getAllOwnedItemBookingsByState(userId, state, from, size));
+    public ResponseEntity<List<BookingResponseDto>> getAllOwnedItemBookingsByState(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                                   @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                                                   @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                                   @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                                   @RequestParam(name = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return withNextCursor(bookingService.getAllOwnedItemBookingsByStateAfter(userId, state, cursor, size), size);
+        }
+        return ResponseEntity.ok(bookingService.getAllOwnedItemBookingsByState(userId, state, from, size));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportAllOwnedItemBookings(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                                                            HttpServletResponse response) {
+        log.info("Запрос выгрузки всех бронирований вещей пользователя {}", userId);
+        return ResponseEntity.ok()
+                .body(output -> bookingService.exportAllOwnedItemBookings(userId, booking -> {
+                    // Тип задаётся при первой записи, чтобы ошибка до начала выгрузки вернулась обычным JSON
+                    if (response.getContentType() == null) {
+                        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                    }
+                    try {
+                        output.write(objectMapper.writeValueAsBytes(booking));
+                        output.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings);
     }
 }
 
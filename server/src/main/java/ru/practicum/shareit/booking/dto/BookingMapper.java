@@ -1,46 +1,19 @@
 package ru.practicum.shareit.booking.dto;
 
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.user.dto.UserDto;
-
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import ru.practicum.shareit.item.model.Item;
 
 public class BookingMapper {
 
-
+    // Ответы собираются конструкторами: мапперы вызываются на каждую строку списков бронирований
     public static BookingResponseDto toDto(Booking booking) {
-        UserDto userDto = UserDto.builder()
-                .id(booking.getBooker().getId())
-                .build();
-
-        ItemDto itemDto = ItemDto.builder()
-                .id(booking.getItem().getId())
-                .name(booking.getItem().getName())
-                .build();
-
-
-        return BookingResponseDto.builder()
-                .id(booking.getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .status(booking.getStatus())
-                .booker(userDto)
-                .item(itemDto)
-                .build();
+        Item item = booking.getItem();
+        return new BookingResponseDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getBooker().getId(), item.getId(), item.getName());
     }
 
-    public static BookingDto toBookingDto(Optional<Booking> booking) {
-
-        return booking.map(value -> BookingDto.builder()
-                .id(value.getId())
-                .start(value.getStart())
-                .end(value.getEnd())
-                .bookerId(value.getBooker().getId())
-                .build()).orElse(null);
-
+    public static BookingDto toBookingDto(BookingShort booking) {
+        return new BookingDto(booking.getId(), booking.getStartDate(), booking.getEndDate(), booking.getBookerId());
     }
 
     public static Booking fromDto(BookingRequestDto bookingDto) {
@@ -49,11 +22,4 @@ public class BookingMapper {
                 .end(bookingDto.getEnd())
                 .build();
     }
-
-
-    public static List<BookingResponseDto> toDto(List<Booking> bookings) {
-        return bookings.stream()
-                .map(BookingMapper::toDto)
-                .collect(Collectors.toList());
-    }
 }
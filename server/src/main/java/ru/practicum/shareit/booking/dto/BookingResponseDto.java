@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.util.BookingStatus;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class BookingResponseDto {
     private Long id;
     private LocalDateTime start;
@@ -17,6 +19,10 @@ public class BookingResponseDto {
     private UserDto booker;
     private ItemDto item;
     private BookingStatus status;
-}
 
+    public BookingResponseDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                              Long bookerId, Long itemId, String itemName) {
+        this(id, start, end, new UserDto(bookerId, null, null), new ItemDto(itemId, itemName, null, null), status);
+    }
+}
 
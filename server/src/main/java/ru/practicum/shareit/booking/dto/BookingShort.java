@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingShort {
+
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    Long getItemId();
+
+    Long getId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    Long getBookerId();
+
+    String getKind();
+}
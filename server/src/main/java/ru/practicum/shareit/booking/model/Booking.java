@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_date")
     private LocalDateTime start;
@@ -31,4 +32,6 @@ public class Booking {
     private User booker;
     @Enumerated(value = EnumType.STRING)
     private BookingStatus status;
+    @Version
+    private Long version;
 }
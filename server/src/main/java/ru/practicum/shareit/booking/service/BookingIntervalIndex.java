@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+@Component
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+    // Подтверждённые бронирования одной вещи не пересекаются, поэтому интервалы упорядочены и по началу, и по концу.
+    // Хранятся только недавно бронировавшиеся вещи: вытесненная вещь при следующей проверке загружается заново
+    private final Cache<Long, NavigableMap<LocalDateTime, LocalDateTime>> periodsByItem;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.bookings.interval-index.max-items:10000}") long maxItems,
+                                @Value("${shareit.bookings.interval-index.expire-after-access:1h}")
+                                Duration expireAfterAccess) {
+        this.bookingRepository = bookingRepository;
+        this.periodsByItem = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    public boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, LocalDateTime> periods = periodsByItem.get(itemId, this::load);
+        synchronized (periods) {
+            Map.Entry<LocalDateTime, LocalDateTime> latest = periods.lowerEntry(end);
+            return latest != null && latest.getValue().isAfter(start);
+        }
+    }
+
+    public void add(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(itemId, start, end);
+                }
+            });
+        } else {
+            put(itemId, start, end);
+        }
+    }
+
+    public void invalidate(Collection<Long> itemIds) {
+        periodsByItem.invalidateAll(itemIds);
+    }
+
+    // Загрузка вещи и добавление к ней идут под одной блокировкой ключа, поэтому период, подтверждённый
+    // во время загрузки, не теряется. Незагруженной вещи добавлять нечего - она прочитает период из базы
+    private void put(long itemId, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now();
+        periodsByItem.asMap().computeIfPresent(itemId, (id, periods) -> {
+            synchronized (periods) {
+                Iterator<LocalDateTime> ends = periods.values().iterator();
+                while (ends.hasNext() && !ends.next().isAfter(now)) {
+                    ends.remove();
+                }
+                periods.put(start, end);
+            }
+            return periods;
+        });
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> load(Long itemId) {
+        NavigableMap<LocalDateTime, LocalDateTime> periods = new TreeMap<>();
+        for (BookingPeriod period : bookingRepository.findPeriodsEndingAfter(itemId, BookingStatus.APPROVED,
+                LocalDateTime.now())) {
+            periods.put(period.getStart(), period.getEnd());
+        }
+        return periods;
+    }
+}
@@ -1,19 +1,31 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     Booking createBooking(Booking booking, Long userId, Long itemId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingRequestDto> requests, Long userId);
+
     Booking getBookingById(Long id);
 
     Booking getBookingByIdForBookerAndOwner(Long id, Long userId);
 
     Booking acceptOrRejectBooking(Long userId, Long bookingId, Boolean approved);
 
-    List<Booking> getAllBookingsByUserAndState(Long userId, String state, Integer from, Integer size);
+    List<BookingResponseDto> getAllBookingsByUserAndState(Long userId, String state, Integer from, Integer size);
+
+    List<BookingResponseDto> getAllOwnedItemBookingsByState(Long userId, String state, Integer from, Integer size);
+
+    void exportAllOwnedItemBookings(Long ownerId, Consumer<BookingResponseDto> consumer);
+
+    List<BookingResponseDto> getAllBookingsByUserAndStateAfter(Long userId, String state, String cursor, Integer size);
 
-    List<Booking> getAllOwnedItemBookingsByState(Long userId, String state, Integer from, Integer size);
+    List<BookingResponseDto> getAllOwnedItemBookingsByStateAfter(Long userId, String state, String cursor, Integer size);
 }
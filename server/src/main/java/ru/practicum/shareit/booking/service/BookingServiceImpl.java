@@ -6,8 +6,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingCursor;
 import ru.practicum.shareit.booking.util.BookingState;
 import ru.practicum.shareit.booking.util.BookingStatus;
 import ru.practicum.shareit.exception.EntityNotFoundException;
@@ -16,10 +22,14 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,7 +37,11 @@ public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final KnownUserIds knownUserIds;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockStripes itemLockStripes;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -37,20 +51,62 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException("Вещь не найдена.", getClass().toString()));
 
+        prepareNewBooking(booking, user, item);
+
+        return bookingRepository.save(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(List<BookingRequestDto> requests, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден.", getClass().toString()));
+        Set<Long> itemIds = requests.stream().map(BookingRequestDto::getItemId).collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BookingBatchResultDto> results = new ArrayList<>(requests.size());
+        List<Booking> bookings = new ArrayList<>(requests.size());
+        for (BookingRequestDto request : requests) {
+            Booking booking = BookingMapper.fromDto(request);
+            try {
+                Item item = items.get(request.getItemId());
+                if (item == null) {
+                    throw new EntityNotFoundException("Вещь не найдена.", getClass().toString());
+                }
+                prepareNewBooking(booking, user, item);
+                bookings.add(booking);
+                results.add(BookingBatchResultDto.builder().build());
+            } catch (EntityNotFoundException | IncorrectRequestException e) {
+                results.add(BookingBatchResultDto.builder().error(e.getMessage()).build());
+            }
+        }
+
+        Iterator<Booking> saved = bookingRepository.saveAll(bookings).iterator();
+        for (BookingBatchResultDto result : results) {
+            if (result.getError() == null) {
+                result.setBooking(BookingMapper.toDto(saved.next()));
+            }
+        }
+        return results;
+    }
+
+    private void prepareNewBooking(Booking booking, User user, Item item) {
         if (!item.getAvailable()) {
             throw new IncorrectRequestException("Вещь недоступна для бронирования.", getClass().toString());
         }
 
         checkDates(booking.getStart(), booking.getEnd());
 
-        if (Objects.equals(item.getOwner().getId(), userId))
+        if (Objects.equals(item.getOwner().getId(), user.getId()))
             throw new EntityNotFoundException("Невозможно забронировать вещь у самого себя.", getClass().toString());
 
+        if (bookingIntervalIndex.overlaps(item.getId(), booking.getStart(), booking.getEnd()))
+            throw new IncorrectRequestException("Вещь уже забронирована на эти даты.", getClass().toString());
+
         booking.setBooker(user);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
-
-        return bookingRepository.save(booking);
     }
 
     @Override
@@ -72,8 +128,16 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional
     public Booking acceptOrRejectBooking(Long userId, Long bookingId, Boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено.", getClass().toString()));
+
+        // Блокировка держится до фиксации транзакции, иначе следующий поток увидит ещё WAITING
+        return itemLockStripes.withLock(itemId, () ->
+                transactionTemplate.execute(status -> updateBookingStatus(userId, bookingId, approved)));
+    }
+
+    private Booking updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Бронирование не найдено.", getClass().toString()));
 
@@ -84,7 +148,12 @@ public class BookingServiceImpl implements BookingService {
             throw new IncorrectRequestException("Статус должен быть WAITING.", getClass().toString());
 
         if (approved) {
+            Long itemId = booking.getItem().getId();
+            itemRepository.findLockedById(itemId);
+            if (bookingRepository.existsOverlapping(itemId, BookingStatus.APPROVED, booking.getStart(), booking.getEnd()))
+                throw new IncorrectRequestException("Вещь уже забронирована на эти даты.", getClass().toString());
             booking.setStatus(BookingStatus.APPROVED);
+            bookingIntervalIndex.add(itemId, booking.getStart(), booking.getEnd());
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
@@ -94,9 +163,10 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllBookingsByUserAndState(Long userId, String state, Integer from, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден.", getClass().toString()));
+    public List<BookingResponseDto> getAllBookingsByUserAndState(Long userId, String state, Integer from, Integer size) {
+        if (!knownUserIds.contains(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден.", getClass().toString());
+        }
 
         BookingState bookingState = BookingState.checkState(state)
                 .orElseThrow(() ->
@@ -104,7 +174,7 @@ public class BookingServiceImpl implements BookingService {
 
         Pageable pageable = getPageable(from, size);
 
-        List<Booking> result = List.of();
+        List<BookingResponseDto> result = List.of();
 
         final LocalDateTime now = LocalDateTime.now();
 
@@ -138,9 +208,10 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Booking> getAllOwnedItemBookingsByState(Long ownerId, String state, Integer from, Integer size) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден.", getClass().toString()));
+    public List<BookingResponseDto> getAllOwnedItemBookingsByState(Long ownerId, String state, Integer from, Integer size) {
+        if (!knownUserIds.contains(ownerId)) {
+            throw new EntityNotFoundException("Пользователь не найден.", getClass().toString());
+        }
 
         BookingState bookingState = BookingState.checkState(state)
                 .orElseThrow(() -> new IncorrectRequestException(String.format("Unknown state: " + state),
@@ -148,7 +219,7 @@ public class BookingServiceImpl implements BookingService {
 
         Pageable pageable = getPageable(from, size);
 
-        List<Booking> result = List.of();
+        List<BookingResponseDto> result = List.of();
 
         final LocalDateTime now = LocalDateTime.now();
 
@@ -181,6 +252,52 @@ public class BookingServiceImpl implements BookingService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllOwnedItemBookings(Long ownerId, Consumer<BookingResponseDto> consumer) {
+        if (!knownUserIds.contains(ownerId)) {
+            throw new EntityNotFoundException("Пользователь не найден.", getClass().toString());
+        }
+
+        try (Stream<BookingResponseDto> bookings = bookingRepository.streamAllByItemOwnerId(ownerId)) {
+            bookings.forEach(consumer);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllBookingsByUserAndStateAfter(Long userId, String state, String cursor, Integer size) {
+        if (!knownUserIds.contains(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден.", getClass().toString());
+        }
+
+        return bookingRepository.findAllByBookerIdAndStateAfter(userId, parseState(state), LocalDateTime.now(),
+                parseCursor(cursor), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllOwnedItemBookingsByStateAfter(Long ownerId, String state, String cursor, Integer size) {
+        if (!knownUserIds.contains(ownerId)) {
+            throw new EntityNotFoundException("Пользователь не найден.", getClass().toString());
+        }
+
+        return bookingRepository.findAllByItemOwnerIdAndStateAfter(ownerId, parseState(state), LocalDateTime.now(),
+                parseCursor(cursor), size);
+    }
+
+    private BookingState parseState(String state) {
+        return BookingState.checkState(state)
+                .orElseThrow(() -> new IncorrectRequestException("Unknown state: " + state, getClass().toString()));
+    }
+
+    private BookingCursor parseCursor(String cursor) {
+        if (cursor.isEmpty()) {
+            return null;
+        }
+        return BookingCursor.decode(cursor)
+                .orElseThrow(() -> new IncorrectRequestException("Некорректный курсор: " + cursor, getClass().toString()));
+    }
 
     private void checkDates(LocalDateTime start, LocalDateTime end) {
         if (!start.isBefore(end) || start.equals(end)) {
@@ -1,50 +1,100 @@
 package ru.practicum.shareit.booking.service.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.util.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSeekRepository {
 
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start, LocalDateTime end,
-                                                                 Pageable pageable);
+    String VIEW = "SELECT new ru.practicum.shareit.booking.dto.BookingResponseDto(b.id, b.start, b.end, b.status, " +
+            "b.booker.id, i.id, i.name) FROM Booking b JOIN b.item i ";
 
-    List<Booking> findAllByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findAllByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = ?1")
+    Optional<Long> findItemIdById(Long id);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.booker.id = ?1 AND b.status = ?2")
+    List<Long> findItemIdsByBookerIdAndStatus(Long bookerId, BookingStatus status);
 
-    List<Booking> findAllByItemOwnerId(Long ownerId, Pageable pageable);
+    @Query(VIEW + "WHERE b.booker.id = ?1")
+    List<BookingResponseDto> findAllByBookerId(Long bookerId, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start,
-                                                                    LocalDateTime end, Pageable pageable);
+    @Query(VIEW + "WHERE b.booker.id = ?1 AND b.start < ?2 AND b.end > ?3")
+    List<BookingResponseDto> findAllByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start,
+                                                                            LocalDateTime end, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    @Query(VIEW + "WHERE b.booker.id = ?1 AND b.end < ?2")
+    List<BookingResponseDto> findAllByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    @Query(VIEW + "WHERE b.booker.id = ?1 AND b.start > ?2")
+    List<BookingResponseDto> findAllByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
 
-    List<Booking> findAllByItemOwnerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query(VIEW + "WHERE b.booker.id = ?1 AND b.status = ?2")
+    List<BookingResponseDto> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
-    Boolean existsAllByItemIdAndEndIsBeforeAndBooker_IdEquals(Long itemId, LocalDateTime date, Long bookerId);
+    @Query(VIEW + "WHERE i.owner.id = ?1")
+    List<BookingResponseDto> findAllByItemOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.owner.id = ?1 AND b.start < ?2 AND b.end > ?3")
+    List<BookingResponseDto> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start,
+                                                                               LocalDateTime end, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.owner.id = ?1 AND b.end < ?2")
+    List<BookingResponseDto> findAllByItemOwnerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
 
-    Optional<Booking> findFirstByItemIdAndStartLessThanEqualAndStatusOrderByEndDesc(long itemId, LocalDateTime now,
-                                                                                    BookingStatus bookingStatus);
+    @Query(VIEW + "WHERE i.owner.id = ?1 AND b.start > ?2")
+    List<BookingResponseDto> findAllByItemOwnerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusOrderByEndAsc(long itemId, LocalDateTime now,
-                                                                           BookingStatus bookingStatus);
+    @Query(VIEW + "WHERE i.owner.id = ?1 AND b.status = ?2")
+    List<BookingResponseDto> findAllByItemOwnerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findByItemInAndStartLessThanEqualAndStatusOrderByEndDesc(List<Item> items, LocalDateTime now,
-                                                                           BookingStatus status, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(VIEW + "WHERE i.owner.id = ?1 ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingResponseDto> streamAllByItemOwnerId(Long ownerId);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = ?1 AND b.end < ?2 AND b.booker.id = ?3")
+    Boolean existsAllByItemIdAndEndIsBeforeAndBooker_IdEquals(Long itemId, LocalDateTime date, Long bookerId);
 
-    List<Booking> findByItemInAndStartAfterAndStatusOrderByEndAsc(List<Item> items, LocalDateTime now,
-                                                                  BookingStatus status, Pageable pageable);
-}
\ No newline at end of file
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status = ?2 AND b.start < ?4 AND b.end > ?3")
+    boolean existsOverlapping(Long itemId, BookingStatus status, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT b.start AS start, b.end AS end FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status = ?2 AND b.end > ?3 ORDER BY b.start")
+    List<BookingPeriod> findPeriodsEndingAfter(Long itemId, BookingStatus status, LocalDateTime end);
+
+    @Query(value = "SELECT t.item_id AS itemId, t.id AS id, t.start_date AS startDate, t.end_date AS endDate, " +
+            "t.booker_id AS bookerId, t.kind AS kind " +
+            "FROM (SELECT b.item_id, b.id, b.start_date, b.end_date, b.booker_id, " +
+            "CASE WHEN b.start_date <= :now THEN 'LAST' ELSE 'NEXT' END AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, CASE WHEN b.start_date <= :now THEN 0 ELSE 1 END " +
+            "ORDER BY CASE WHEN b.start_date <= :now THEN b.end_date END DESC, " +
+            "CASE WHEN b.start_date > :now THEN b.end_date END ASC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = :status) t " +
+            "WHERE t.rn = 1",
+            nativeQuery = true)
+    List<BookingShort> findLastAndNextByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                @Param("now") LocalDateTime now,
+                                                @Param("status") String status);
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.service.repository;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.booking.util.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSeekRepository {
+
+    List<BookingResponseDto> findAllByBookerIdAndStateAfter(Long bookerId, BookingState state, LocalDateTime now,
+                                                 @Nullable BookingCursor after, int size);
+
+    List<BookingResponseDto> findAllByItemOwnerIdAndStateAfter(Long ownerId, BookingState state, LocalDateTime now,
+                                                    @Nullable BookingCursor after, int size);
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.service.repository;
+
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.booking.util.BookingState;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingSeekRepositoryImpl implements BookingSeekRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingResponseDto> findAllByBookerIdAndStateAfter(Long bookerId, BookingState state, LocalDateTime now,
+                                                                   @Nullable BookingCursor after, int size) {
+        return findPage(false, bookerId, state, now, after, size);
+    }
+
+    @Override
+    public List<BookingResponseDto> findAllByItemOwnerIdAndStateAfter(Long ownerId, BookingState state,
+                                                                      LocalDateTime now, @Nullable BookingCursor after,
+                                                                      int size) {
+        return findPage(true, ownerId, state, now, after, size);
+    }
+
+    private List<BookingResponseDto> findPage(boolean byOwner, Long userId, BookingState state, LocalDateTime now,
+                                              @Nullable BookingCursor after, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingResponseDto> query = cb.createQuery(BookingResponseDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(byOwner
+                ? cb.equal(item.get("owner").get("id"), userId)
+                : cb.equal(booking.get("booker").get("id"), userId));
+
+        switch (state) {
+            case CURRENT:
+                where.add(cb.lessThan(start, now));
+                where.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                where.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                where.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                where.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                where.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+        }
+
+        if (after != null) {
+            where.add(cb.or(
+                    cb.lessThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.select(cb.construct(BookingResponseDto.class, id, start, end, booking.get("status"),
+                        booking.get("booker").get("id"), item.get("id"), item.get("name")))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking.util;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public enum BookingState {
     ALL,
@@ -10,11 +13,16 @@ public enum BookingState {
     WAITING,
     REJECTED;
 
+    // values() каждый раз копирует массив, а состояние разбирается в каждом запросе списка бронирований
+    private static final BookingState[] STATES = values();
+    private static final List<Optional<BookingState>> FOUND = Arrays.stream(STATES)
+            .map(Optional::of)
+            .collect(Collectors.toList());
 
     public static Optional<BookingState> checkState(String state) {
-        for (BookingState bookingState : values()) {
+        for (BookingState bookingState : STATES) {
             if (bookingState.name().equalsIgnoreCase(state))
-                return Optional.of(bookingState);
+                return FOUND.get(bookingState.ordinal());
         }
         return Optional.empty();
     }
@@ -2,6 +2,8 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -57,6 +59,24 @@ public class ExceptionController {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
+        log.error("Объект изменён параллельным запросом. Код 409 {}", e.getMessage(), e);
+        return new ErrorResponse(
+                "Объект изменён параллельным запросом. Код 409 "
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleTaskRejectedException(final TaskRejectedException e) {
+        log.warn("Все потоки выгрузки заняты. Код 503 {}", e.getMessage());
+        return new ErrorResponse(
+                "Слишком много одновременных выгрузок, повторите позже"
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
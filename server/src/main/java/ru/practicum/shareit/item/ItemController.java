@@ -1,18 +1,23 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.dto.CommentMapper;
 import ru.practicum.shareit.item.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -22,6 +27,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemResponseDto createItem(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
@@ -31,6 +37,15 @@ public class ItemController {
         return ItemMapper.toItemDto(itemService.createItem(item, userId));
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
+                                           HttpServletRequest request) throws IOException {
+        log.info("Запрос импорта вещей у пользователя {}", userId);
+        try (ItemImportReader items = new ItemImportReader(objectMapper, request.getInputStream())) {
+            return new ItemImportResultDto(itemService.importItems(items, userId));
+        }
+    }
+
     @PatchMapping("/{itemId}")
     public ItemResponseDto updateItemById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                           @PathVariable Long itemId,
@@ -44,7 +59,7 @@ public class ItemController {
     public ItemResponseDto getItemById(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                        @PathVariable Long itemId) {
         log.info("Запрос  вещи {}", itemId);
-        return ItemMapper.toItemDtoWithBookings(itemService.getItemById(itemId, userId));
+        return itemService.getItemById(itemId, userId);
     }
 
     @GetMapping
@@ -52,7 +67,7 @@ public class ItemController {
                                                      @RequestParam(name = "from", defaultValue = "0") Integer from,
                                                      @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Запрос всех вещей по id пользователя: {}", userId);
-        return ItemMapper.toItemDtoWithBookings(itemService.getAllItemsByUserId(userId, from, size));
+        return itemService.getAllItemsByUserId(userId, from, size);
     }
 
     @GetMapping("/search")
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Читает вещи по одной из JSON-массива или из NDJSON, не загружая весь поток в память
+public class ItemImportReader implements Iterator<ItemRequestDto>, Closeable {
+
+    private final JsonParser parser;
+    private final ObjectReader reader;
+
+    public ItemImportReader(ObjectMapper mapper, InputStream input) {
+        this.reader = mapper.readerFor(ItemRequestDto.class);
+        try {
+            this.parser = mapper.getFactory().createParser(input);
+            if (advance() == JsonToken.START_ARRAY) {
+                advance();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        JsonToken token = parser.currentToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IncorrectRequestException("Некорректный JSON: ожидался объект вещи.", getClass().toString());
+        }
+        return true;
+    }
+
+    @Override
+    public ItemRequestDto next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            ItemRequestDto item = reader.readValue(parser);
+            advance();
+            return item;
+        } catch (JsonProcessingException e) {
+            throw new IncorrectRequestException("Некорректный JSON: " + e.getOriginalMessage(), getClass().toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private JsonToken advance() throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException e) {
+            throw new IncorrectRequestException("Некорректный JSON: " + e.getOriginalMessage(), getClass().toString());
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package ru.practicum.shareit.item.comment;
 
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.item.model.Item;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
 
-    List<Comment> findByItemIn(List<Item> items, Sort created);
+    @Query("SELECT new ru.practicum.shareit.item.comment.dto.CommentResponseDto(c.id, c.text, a.name, c.created, " +
+            "c.item.id) FROM Comment c JOIN c.author a WHERE c.item.id IN ?1 ORDER BY c.created DESC")
+    List<CommentResponseDto> findAllByItemIdIn(Collection<Long> itemIds);
 }
@@ -3,9 +3,6 @@ package ru.practicum.shareit.item.comment.dto;
 import ru.practicum.shareit.item.comment.Comment;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 public class CommentMapper {
     public static Comment fromDto(CommentRequestDto commentDto) {
@@ -16,22 +13,7 @@ public class CommentMapper {
     }
 
     public static CommentResponseDto toDto(Comment comment) {
-        return CommentResponseDto.builder()
-                .id(comment.getId())
-                .text(comment.getText())
-                .authorName(comment.getAuthor().getName())
-                .created(comment.getCreated())
-                .build();
-    }
-
-    public static List<CommentResponseDto> toDto(Optional<List<Comment>> comments) {
-
-        if (comments.isPresent()) {
-            return comments.get().stream()
-                    .map(CommentMapper::toDto)
-                    .collect(Collectors.toList());
-        } else {
-            return List.of();
-        }
+        return new CommentResponseDto(comment.getId(), comment.getText(), comment.getAuthor().getName(),
+                comment.getCreated(), null);
     }
 }
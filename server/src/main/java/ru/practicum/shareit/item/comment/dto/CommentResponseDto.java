@@ -1,16 +1,23 @@
 package ru.practicum.shareit.item.comment.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class CommentResponseDto {
     private Long id;
     private String text;
     private String authorName;
     private LocalDateTime created;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long itemId;
 }
 
@@ -1,49 +1,25 @@
 package ru.practicum.shareit.item.dto;
 
-import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.item.comment.dto.CommentMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ItemMapper {
     public static ItemResponseDto toItemDto(Item item) {
-        return ItemResponseDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .requestId(item.getRequest() != null ? item.getRequest().getId() : 0)
-                .build();
-    }
-
-    public static ItemResponseDto toItemDtoWithBookings(Item item) {
-
-
-        return ItemResponseDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .lastBooking(BookingMapper.toBookingDto(item.getLastBooking()))
-                .nextBooking(BookingMapper.toBookingDto(item.getNextBooking()))
-                .comments(CommentMapper.toDto(item.getComments()))
-                .requestId(item.getRequest() != null ? item.getRequest().getId() : 0)
-                .build();
+        ItemRequest request = item.getRequest();
+        return ItemResponseDto.withoutBookings(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), request != null ? request.getId() : null);
     }
 
+    // Список сразу нужного размера, без промежуточных объектов stream
     public static List<ItemResponseDto> toItemDto(List<Item> items) {
-        return items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
-    }
-
-    public static List<ItemResponseDto> toItemDtoWithBookings(List<Item> items) {
-        return items.stream()
-                .map(ItemMapper::toItemDtoWithBookings)
-                .collect(Collectors.toList());
+        List<ItemResponseDto> result = new ArrayList<>(items.size());
+        for (Item item : items) {
+            result.add(toItemDto(item));
+        }
+        return result;
     }
 
     public static Item fromItemDto(ItemRequestDto itemDto) {
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 
@@ -9,6 +12,7 @@ import java.util.List;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class ItemResponseDto {
     private Long id;
     private String name;
@@ -18,4 +22,17 @@ public class ItemResponseDto {
     private BookingDto nextBooking;
     private List<CommentResponseDto> comments;
     private Long requestId;
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long ownerId;
+
+    public ItemResponseDto(Long id, String name, String description, Boolean available, Long requestId, Long ownerId) {
+        this(id, name, description, available, null, null, null, requestId != null ? requestId : 0, ownerId);
+    }
+
+    // Вещь без бронирований и отзывов
+    public static ItemResponseDto withoutBookings(Long id, String name, String description, Boolean available,
+                                                  Long requestId) {
+        return new ItemResponseDto(id, name, description, available, requestId, null);
+    }
 }
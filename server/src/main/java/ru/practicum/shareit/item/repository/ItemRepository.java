@@ -2,23 +2,46 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    String VIEW = "SELECT new ru.practicum.shareit.item.dto.ItemResponseDto(i.id, i.name, i.description, " +
+            "i.available, i.request.id, i.owner.id) FROM Item i ";
+
     @Query(" SELECT i " +
             "FROM Item i " +
-            "WHERE UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')) AND i.available = true")
+            "WHERE (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
+            "OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%'))) AND i.available = true")
     List<Item> search(String text, Pageable pageable);
 
-    List<Item> findAllByOwnerIdOrderByIdAsc(Long itemId, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = ?1")
+    Optional<Item> findLockedById(Long id);
+
+    @Query(VIEW + "WHERE i.id = ?1")
+    Optional<ItemResponseDto> findViewById(Long id);
+
+    @Query(VIEW + "WHERE i.owner.id = ?1 ORDER BY i.id")
+    List<ItemResponseDto> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
+
+    @Query(VIEW + "WHERE i.request.id IN ?1")
+    List<ItemResponseDto> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 
-    List<Item> findAllByRequestId(Long requestId);
+    @Query("SELECT i FROM Item i WHERE i.owner.id = ?1 AND i.id > ?2 AND i.id <= ?3 ORDER BY i.id")
+    List<Item> findOwnedInRange(Long ownerId, Long afterId, Long toId, Pageable pageable);
 
-    List<Item> findByRequestIn(List<ItemRequest> requests);
+    // Вещи, которые каскад в базе удалит вместе с пользователем: его собственные и созданные по его запросам
+    @Query("SELECT i.id FROM Item i LEFT JOIN i.request r WHERE i.owner.id = ?1 OR r.requestor.id = ?1")
+    List<Long> findIdsDeletedWithUser(Long userId);
 }
@@ -0,0 +1,344 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ItemSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int REBUILD_BATCH = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final Timer rebuildTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Postings> postings = new HashMap<>();
+    private Map<Long, Entry> entries = new HashMap<>();
+    private final List<Entry> pending = new ArrayList<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.rebuildTimer = Timer.builder("shareit.search.index.rebuild")
+                .description("Время полной перестройки поискового индекса вещей")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.memory", this, ItemSearchIndex::estimateBytes)
+                .description("Оценка памяти, занятой поисковым индексом вещей")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.items", this, ItemSearchIndex::size)
+                .description("Количество вещей в поисковом индексе")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        withWriteLock(() -> rebuilding = true);
+
+        Map<Long, Postings> freshPostings = new HashMap<>();
+        Map<Long, Entry> freshEntries = new HashMap<>();
+        long started = System.nanoTime();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH));
+            for (Item item : batch) {
+                put(freshPostings, freshEntries, Entry.of(item));
+                lastId = item.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+
+        withWriteLock(() -> {
+            postings = freshPostings;
+            entries = freshEntries;
+            for (Entry entry : pending) {
+                put(postings, entries, entry);
+            }
+            pending.clear();
+            rebuilding = false;
+            ready = true;
+        });
+        rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        log.info("Поисковый индекс вещей перестроен: {} вещей", size());
+    }
+
+    public void index(Item item) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = Entry.of(item);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(entry);
+                }
+            });
+        } else {
+            apply(entry);
+        }
+    }
+
+    // Вещи большого импорта: после фиксации дочитываются из базы порциями, поэтому до фиксации
+    // хранятся только границы идентификаторов, а не записи индекса на каждую строку
+    public void indexOwnedRange(long ownerId, long fromId, long toId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    loadOwnedRange(ownerId, fromId, toId);
+                }
+            });
+        } else {
+            loadOwnedRange(ownerId, fromId, toId);
+        }
+    }
+
+    private void loadOwnedRange(long ownerId, long fromId, long toId) {
+        long lastId = fromId - 1;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findOwnedInRange(ownerId, lastId, toId, PageRequest.of(0, REBUILD_BATCH));
+            for (Item item : batch) {
+                apply(Entry.of(item));
+                lastId = item.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH);
+    }
+
+    // Вещи удалены каскадом в базе (например, вместе с владельцем), поэтому убираются по идентификаторам
+    public void remove(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(id -> apply(Entry.removed(id)));
+                }
+            });
+        } else {
+            ids.forEach(id -> apply(Entry.removed(id)));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<List<Item>> search(String text, int from, int size) {
+        String query = normalize(text);
+        if (!ready || query.length() < GRAM) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[query.length() - GRAM + 1];
+            for (int i = 0; i < lists.length; i++) {
+                Postings list = postings.get(gram(query, i));
+                if (list == null) {
+                    return Optional.of(List.of());
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(Postings::size));
+
+            // Смещение то же, что у PageRequest.of(from / size, size) при поиске в базе
+            int offset = from / size * size;
+            List<Item> result = new ArrayList<>(Math.min(size, lists[0].size()));
+            int skipped = 0;
+            for (int i = 0; i < lists[0].size() && result.size() < size; i++) {
+                long id = lists[0].get(i);
+                if (!containsInAll(lists, id)) {
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                if (!entry.matches(query)) {
+                    continue;
+                }
+                if (skipped++ >= offset) {
+                    result.add(entry.toItem());
+                }
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Entry entry) {
+        withWriteLock(() -> {
+            put(postings, entries, entry);
+            if (rebuilding) {
+                pending.add(entry);
+            }
+        });
+    }
+
+    private static void put(Map<Long, Postings> postings, Map<Long, Entry> entries, Entry entry) {
+        Entry previous = entries.remove(entry.id);
+        if (previous != null) {
+            for (long gram : previous.grams()) {
+                Postings list = postings.get(gram);
+                list.remove(entry.id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        if (!entry.available) {
+            return;
+        }
+        entries.put(entry.id, entry);
+        for (long gram : entry.grams()) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(entry.id);
+        }
+    }
+
+    private static boolean containsInAll(Postings[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long estimateBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Postings list : postings.values()) {
+                bytes += 48 + list.estimateBytes();
+            }
+            for (Entry entry : entries.values()) {
+                bytes += 80 + 2L * (entry.name.length() + entry.description.length());
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static long gram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long requestId;
+
+        private Entry(long id, String name, String description, boolean available, Long requestId) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+            this.requestId = requestId;
+        }
+
+        static Entry of(Item item) {
+            return new Entry(item.getId(),
+                    item.getName() != null ? item.getName() : "",
+                    item.getDescription() != null ? item.getDescription() : "",
+                    Boolean.TRUE.equals(item.getAvailable()),
+                    item.getRequest() != null ? item.getRequest().getId() : null);
+        }
+
+        static Entry removed(long id) {
+            return new Entry(id, "", "", false, null);
+        }
+
+        boolean matches(String query) {
+            return containsIgnoreCase(name, query) || containsIgnoreCase(description, query);
+        }
+
+        private static boolean containsIgnoreCase(String text, String query) {
+            for (int i = 0; i + query.length() <= text.length(); i++) {
+                if (text.regionMatches(true, i, query, 0, query.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Set<Long> grams() {
+            Set<Long> grams = new HashSet<>();
+            addGrams(grams, normalize(name));
+            addGrams(grams, normalize(description));
+            return grams;
+        }
+
+        private static void addGrams(Set<Long> grams, String text) {
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                grams.add(gram(text, i));
+            }
+        }
+
+        Item toItem() {
+            return Item.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .request(requestId != null ? ItemRequest.builder().id(requestId).build() : null)
+                    .build();
+        }
+    }
+}
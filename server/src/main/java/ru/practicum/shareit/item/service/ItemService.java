@@ -2,18 +2,23 @@ package ru.practicum.shareit.item.service;
 
 
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Iterator;
 import java.util.List;
 
 public interface ItemService {
     Item createItem(Item item, Long userId);
 
+    long importItems(Iterator<ItemRequestDto> items, Long userId);
+
     Item updateItemById(Item item, Long itemId, Long userId);
 
-    Item getItemById(Long itemId, Long userId);
+    ItemResponseDto getItemById(Long itemId, Long userId);
 
-    List<Item> getAllItemsByUserId(Long userId, Integer from, Integer size);
+    List<ItemResponseDto> getAllItemsByUserId(Long userId, Integer from, Integer size);
 
     List<Item> searchItem(String text, Integer from, Integer size);
 
@@ -1,47 +1,74 @@
 package ru.practicum.shareit.item.service;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.service.repository.BookingRepository;
 import ru.practicum.shareit.booking.util.BookingStatus;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectRequestException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
-import static org.springframework.data.domain.Sort.Direction.DESC;
-
 @Service
-@RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final KnownUserIds knownUserIds;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
-
+    private final ItemSearchIndex itemSearchIndex;
+    private final EntityManager entityManager;
+    private final int importChunkSize;
+
+    public ItemServiceImpl(ItemRepository itemRepository, UserRepository userRepository, KnownUserIds knownUserIds,
+                           BookingRepository bookingRepository, CommentRepository commentRepository,
+                           ItemRequestRepository itemRequestRepository, ItemSearchIndex itemSearchIndex,
+                           EntityManager entityManager,
+                           @Value("${shareit.items.import.chunk-size:500}") int importChunkSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.knownUserIds = knownUserIds;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.entityManager = entityManager;
+        this.importChunkSize = importChunkSize;
+    }
 
     @Override
     @Transactional
@@ -56,7 +83,68 @@ public class ItemServiceImpl implements ItemService {
         }
 
         item.setOwner(user);
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        return savedItem;
+    }
+
+    @Override
+    @Transactional
+    public long importItems(Iterator<ItemRequestDto> items, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден.", getClass().toString()));
+
+        List<Item> chunk = new ArrayList<>(importChunkSize);
+        // Границы идентификаторов импортированных вещей: индекс поиска дочитает их после фиксации
+        long[] ids = {Long.MAX_VALUE, Long.MIN_VALUE};
+        long imported = 0;
+        while (items.hasNext()) {
+            Item item = ItemMapper.fromItemDto(items.next());
+            item.setOwner(user);
+            chunk.add(item);
+            if (chunk.size() == importChunkSize) {
+                imported += saveChunk(chunk, ids);
+            }
+        }
+        imported += saveChunk(chunk, ids);
+        if (imported > 0) {
+            itemSearchIndex.indexOwnedRange(user.getId(), ids[0], ids[1]);
+        }
+        return imported;
+    }
+
+    private int saveChunk(List<Item> chunk, long[] ids) {
+        int size = chunk.size();
+        if (size == 0) {
+            return 0;
+        }
+        resolveRequests(chunk);
+        for (Item item : itemRepository.saveAll(chunk)) {
+            ids[0] = Math.min(ids[0], item.getId());
+            ids[1] = Math.max(ids[1], item.getId());
+        }
+        // Сбрасываем контекст, чтобы память не росла с размером импорта
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+        return size;
+    }
+
+    // Запросы вещей порции читаются одним запросом, несуществующий запрос не привязывается
+    private void resolveRequests(List<Item> chunk) {
+        Set<Long> requestIds = new HashSet<>();
+        for (Item item : chunk) {
+            if (item.getRequest().getId() != 0) {
+                requestIds.add(item.getRequest().getId());
+            }
+        }
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        if (!requestIds.isEmpty()) {
+            itemRequestRepository.findAllById(requestIds).forEach(request -> requests.put(request.getId(), request));
+        }
+        for (Item item : chunk) {
+            item.setRequest(requests.get(item.getRequest().getId()));
+        }
     }
 
     @Override
@@ -81,86 +169,73 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
 
+        itemSearchIndex.index(item);
         return item;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Item getItemById(Long itemId, Long userId) {
-
-        Item item = itemRepository.findById(itemId)
+    public ItemResponseDto getItemById(Long itemId, Long userId) {
+        ItemResponseDto item = itemRepository.findViewById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException("Вещь не найдена.", getClass().toString()));
 
-        return setLastAndNextBookingAndComments(item, userId);
-    }
-
-    public Item setLastAndNextBookingAndComments(Item item, Long userId) {
-        LocalDateTime now = LocalDateTime.now();
-        if (Objects.equals(userId, item.getOwner().getId())) {
-            item.setLastBooking(bookingRepository
-                    .findFirstByItemIdAndStartLessThanEqualAndStatusOrderByEndDesc(item.getId(), now, BookingStatus.APPROVED)
-                    .orElse(null));
-
-            item.setNextBooking(bookingRepository
-                    .findFirstByItemIdAndStartAfterAndStatusOrderByEndAsc(item.getId(), now, BookingStatus.APPROVED)
-                    .orElse(null));
+        List<ItemResponseDto> items = List.of(item);
+        if (Objects.equals(userId, item.getOwnerId())) {
+            setLastAndNextBookings(items);
         }
-
-        item.setComments(new ArrayList<>(commentRepository.findAllByItemId(item.getId())));
+        setComments(items);
 
         return item;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Item> getAllItemsByUserId(Long userId, Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(
-                () -> new EntityNotFoundException("Пользователь не найден", getClass().toString()));
+    public List<ItemResponseDto> getAllItemsByUserId(Long userId, Integer from, Integer size) {
+        if (!knownUserIds.contains(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден", getClass().toString());
+        }
 
-        Pageable pageable = getPageable(from, size);
+        List<ItemResponseDto> items = itemRepository.findAllByOwnerIdOrderByIdAsc(userId, getPageable(from, size));
+        setLastAndNextBookings(items);
+        setComments(items);
 
-        return setAllLastAndNextBookingAndComments(itemRepository.findAllByOwnerIdOrderByIdAsc(userId, pageable), pageable);
+        return items;
     }
 
-    private List<Item> setAllLastAndNextBookingAndComments(List<Item> items, Pageable pageable) {
-        final LocalDateTime now = LocalDateTime.now();
-
-        Map<Item, Booking> lastBookings = bookingRepository
-                .findByItemInAndStartLessThanEqualAndStatusOrderByEndDesc(items, now,
-                        BookingStatus.APPROVED, pageable)
-                .stream()
-                .collect(Collectors.toMap(Booking::getItem, Function.identity(), (o1, o2) -> o1));
-
-        Map<Item, Booking> nextBookings = bookingRepository
-                .findByItemInAndStartAfterAndStatusOrderByEndAsc(items, now,
-                        BookingStatus.APPROVED, pageable)
-                .stream()
-                .collect(Collectors.toMap(Booking::getItem, Function.identity(), (o1, o2) -> o1));
-
-        Map<Item, List<Comment>> itemsWithComments = commentRepository
-                .findByItemIn(items, Sort.by(DESC, "created"))
-                .stream()
-                .collect(groupingBy(Comment::getItem, toList()));
-
-        List<Item> result = new ArrayList<>();
-        for (Item item : items) {
-            Booking lastBooking = lastBookings.get(item);
-            if (lastBookings.size() > 0 && lastBooking != null) {
-                item.setLastBooking(lastBooking);
-            }
-            Booking nextBooking = nextBookings.get(item);
-            if (nextBookings.size() > 0 && nextBooking != null) {
-                item.setNextBooking(nextBooking);
-            }
+    private void setLastAndNextBookings(List<ItemResponseDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
 
-            List<Comment> comments = new ArrayList<>(itemsWithComments.getOrDefault(item, List.of()));
-            item.setComments(comments);
+        Map<Long, ItemResponseDto> itemsById = items.stream()
+                .collect(Collectors.toMap(ItemResponseDto::getId, Function.identity()));
 
-            result.add(item);
+        for (BookingShort booking : bookingRepository.findLastAndNextByItemIds(itemsById.keySet(),
+                LocalDateTime.now(), BookingStatus.APPROVED.name())) {
+            ItemResponseDto item = itemsById.get(booking.getItemId());
+            if (BookingShort.LAST.equals(booking.getKind())) {
+                item.setLastBooking(BookingMapper.toBookingDto(booking));
+            } else {
+                item.setNextBooking(BookingMapper.toBookingDto(booking));
+            }
         }
-        return result;
     }
 
+    private void setComments(List<ItemResponseDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ItemResponseDto> itemsById = new HashMap<>();
+        for (ItemResponseDto item : items) {
+            item.setComments(new ArrayList<>());
+            itemsById.put(item.getId(), item);
+        }
+
+        for (CommentResponseDto comment : commentRepository.findAllByItemIdIn(itemsById.keySet())) {
+            itemsById.get(comment.getItemId()).getComments().add(comment);
+        }
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -169,6 +244,11 @@ public class ItemServiceImpl implements ItemService {
             return List.of();
         }
 
+        Optional<List<Item>> indexed = itemSearchIndex.search(text, from, size);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
         Pageable pageable = getPageable(from, size);
 
         return itemRepository.search(text, pageable);
@@ -33,13 +33,13 @@ public class ItemRequestController {
     public ItemRequestDtoOut getItemRequestByIdWithResponses(@RequestHeader(name = "X-Sharer-User-Id") Long userId,
                                                              @PathVariable Long requestId) {
         log.info("Просмотр запроса вещи {}", requestId);
-        return ItemRequestMapper.toDto(itemRequestService.getItemRequestByIdWithResponses(requestId, userId));
+        return itemRequestService.getItemRequestByIdWithResponses(requestId, userId);
     }
 
     @GetMapping
     public List<ItemRequestDtoOut> getAllOwnedRequestsWithResponses(@RequestHeader(name = "X-Sharer-User-Id") Long userId) {
         log.info("Запрос заявок на вещи у пользователя-владельца {}", userId);
-        return ItemRequestMapper.toDto(itemRequestService.getAllOwnedRequestsWithResponses(userId));
+        return itemRequestService.getAllOwnedRequestsWithResponses(userId);
     }
 
     @GetMapping("/all")
@@ -49,6 +49,6 @@ public class ItemRequestController {
                                                                @RequestParam(name = "size", defaultValue = "10")
                                                                Integer size) {
         log.info("Запрос заявок всех заявок на вещи, кроме своих {}", userId);
-        return ItemRequestMapper.toDto(itemRequestService.getAllAvailableItemRequests(userId, from, size));
+        return itemRequestService.getAllAvailableItemRequests(userId, from, size);
     }
 }
@@ -16,4 +16,8 @@ public class ItemRequestDtoOut {
     private String description;
     private LocalDateTime created;
     private List<ItemResponseDto> items;
+
+    public ItemRequestDtoOut(Long id, String description, LocalDateTime created) {
+        this(id, description, created, List.of());
+    }
 }
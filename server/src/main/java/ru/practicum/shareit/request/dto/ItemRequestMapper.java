@@ -1,11 +1,7 @@
 package ru.practicum.shareit.request.dto;
 
-import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 public class ItemRequestMapper {
 
     public static ItemRequest fromDto(ItemRequestDtoIn itemRequestDtoIn) {
@@ -16,15 +12,6 @@ public class ItemRequestMapper {
     }
 
     public static ItemRequestDtoOut toDto(ItemRequest itemRequest) {
-        return ItemRequestDtoOut.builder()
-                .id(itemRequest.getId())
-                .description(itemRequest.getDescription())
-                .created(itemRequest.getCreated())
-                .items(ItemMapper.toItemDto(itemRequest.getItems() != null ? itemRequest.getItems() : List.of()))
-                .build();
-    }
-
-    public static List<ItemRequestDtoOut> toDto(List<ItemRequest> itemRequests) {
-        return itemRequests.stream().map(ItemRequestMapper::toDto).collect(Collectors.toList());
+        return new ItemRequestDtoOut(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated());
     }
 }
@@ -1,15 +1,16 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
-import org.springframework.lang.Nullable;
-import ru.practicum.shareit.item.model.Item;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "requests")
 @Table(name = "requests")
 @Getter
 @Setter
@@ -18,7 +19,8 @@ import java.util.List;
 @Builder
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
     @Column(name = "description")
     private String description;
@@ -27,7 +29,4 @@ public class ItemRequest {
     private User requestor;
     @Column(name = "created")
     private LocalDateTime created;
-    @Transient
-    @Nullable
-    private List<Item> items;
 }
@@ -2,14 +2,24 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    String VIEW = "SELECT new ru.practicum.shareit.request.dto.ItemRequestDtoOut(r.id, r.description, r.created) " +
+            "FROM ItemRequest r ";
 
-    List<ItemRequest> findAllByRequestorId(Long requestorId);
+    @Query(VIEW + "WHERE r.id = ?1")
+    Optional<ItemRequestDtoOut> findViewById(Long id);
 
-    List<ItemRequest> findAllByRequestorIdIsNot(Long requestorId, Pageable pageable);
+    @Query(VIEW + "WHERE r.requestor.id = ?1")
+    List<ItemRequestDtoOut> findAllByRequestorId(Long requestorId);
+
+    @Query(VIEW + "WHERE r.requestor.id <> ?1")
+    List<ItemRequestDtoOut> findAllByRequestorIdIsNot(Long requestorId, Pageable pageable);
 }
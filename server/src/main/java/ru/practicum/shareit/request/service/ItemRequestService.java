@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
@@ -7,9 +8,9 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequest createItemRequest(ItemRequest itemRequest, Long userId);
 
-    ItemRequest getItemRequestByIdWithResponses(Long requestId, Long userId);
+    ItemRequestDtoOut getItemRequestByIdWithResponses(Long requestId, Long userId);
 
-    List<ItemRequest> getAllOwnedRequestsWithResponses(Long userId);
+    List<ItemRequestDtoOut> getAllOwnedRequestsWithResponses(Long userId);
 
-    List<ItemRequest> getAllAvailableItemRequests(Long userId, Integer from, Integer size);
+    List<ItemRequestDtoOut> getAllAvailableItemRequests(Long userId, Integer from, Integer size);
 }
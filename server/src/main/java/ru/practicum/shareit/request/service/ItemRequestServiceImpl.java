@@ -8,21 +8,20 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityNotFoundException;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static java.util.stream.Collectors.groupingBy;
-import static java.util.stream.Collectors.toList;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -30,70 +29,75 @@ import static java.util.stream.Collectors.toList;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserRepository userRepository;
+    private final KnownUserIds knownUserIds;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
 
     @Override
     @Transactional
     public ItemRequest createItemRequest(ItemRequest itemRequest, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден", getClass().getName()));
-        itemRequest.setRequestor(user);
+        if (!knownUserIds.contains(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден", getClass().getName());
+        }
+        itemRequest.setRequestor(userRepository.getReferenceById(userId));
         itemRequest.setCreated(LocalDateTime.now());
         return itemRequestRepository.save(itemRequest);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ItemRequest getItemRequestByIdWithResponses(Long requestId, Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден", getClass().getName()));
+    public ItemRequestDtoOut getItemRequestByIdWithResponses(Long requestId, Long userId) {
+        if (!knownUserIds.contains(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден", getClass().getName());
+        }
 
-        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+        ItemRequestDtoOut itemRequest = itemRequestRepository.findViewById(requestId)
                 .orElseThrow(() -> new EntityNotFoundException("Заявка не найдена.", getClass().getName()));
 
-        itemRequest.setItems(itemRepository.findAllByRequestId(requestId));
-
-        return itemRequest;
+        return addItems(List.of(itemRequest)).get(0);
     }
 
     @Override
-    public List<ItemRequest> getAllOwnedRequestsWithResponses(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден", getClass().getName()));
+    @Transactional(readOnly = true)
+    public List<ItemRequestDtoOut> getAllOwnedRequestsWithResponses(Long userId) {
+        if (!knownUserIds.contains(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден", getClass().getName());
+        }
 
-        List<ItemRequest> requests = itemRequestRepository.findAllByRequestorId(userId);
+        List<ItemRequestDtoOut> requests = itemRequestRepository.findAllByRequestorId(userId);
 
         return addItems(requests);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequest> getAllAvailableItemRequests(Long userId, Integer from, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден", getClass().getName()));
+    public List<ItemRequestDtoOut> getAllAvailableItemRequests(Long userId, Integer from, Integer size) {
+        if (!knownUserIds.contains(userId)) {
+            throw new EntityNotFoundException("Пользователь не найден", getClass().getName());
+        }
 
         int page = from == 0 ? 0 : (from / size);
         Pageable pageable = PageRequest.of(page, size, Sort.by("created").descending());
 
-        List<ItemRequest> requests = itemRequestRepository.findAllByRequestorIdIsNot(userId, pageable);
+        List<ItemRequestDtoOut> requests = itemRequestRepository.findAllByRequestorIdIsNot(userId, pageable);
 
         return addItems(requests);
     }
 
-    private List<ItemRequest> addItems(List<ItemRequest> requests) {
+    private List<ItemRequestDtoOut> addItems(List<ItemRequestDtoOut> requests) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
 
-        Map<ItemRequest, List<Item>> requestWithItems = itemRepository
-                .findByRequestIn(requests)
-                .stream()
-                .collect(groupingBy(Item::getRequest, toList()));
+        Map<Long, ItemRequestDtoOut> requestsById = new HashMap<>();
+        for (ItemRequestDtoOut request : requests) {
+            request.setItems(new ArrayList<>());
+            requestsById.put(request.getId(), request);
+        }
 
-        List<ItemRequest> result = new ArrayList<>();
-        for (ItemRequest request : requests) {
-            List<Item> items = new ArrayList<>(requestWithItems.getOrDefault(request, List.of()));
-            request.setItems(items);
-            result.add(request);
+        for (ItemResponseDto item : itemRepository.findAllByRequestIdIn(requestsById.keySet())) {
+            requestsById.get(item.getRequestId()).getItems().add(item);
         }
-        return result;
+        return requests;
     }
 }
@@ -2,17 +2,13 @@ package ru.practicum.shareit.user.dto;
 
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class UserMapper {
 
     public static UserDto toUserDto(User user) {
-        return UserDto.builder()
-                .id(user.getId())
-                .name(user.getName())
-                .email(user.getEmail())
-                .build();
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
     }
 
     public static User fromUserDto(UserDto userDto) {
@@ -24,9 +20,11 @@ public class UserMapper {
     }
 
     public static List<UserDto> toUserDto(List<User> users) {
-        return users.stream()
-                .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+        List<UserDto> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            result.add(toUserDto(user));
+        }
+        return result;
     }
 }
 
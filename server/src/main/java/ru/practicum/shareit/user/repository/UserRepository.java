@@ -1,8 +1,16 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :id ORDER BY u.id")
+    List<Long> findIdsGreaterThan(@Param("id") long id, Pageable pageable);
 }
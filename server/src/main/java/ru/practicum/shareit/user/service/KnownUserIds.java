@@ -0,0 +1,140 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+@Component
+@Slf4j
+public class KnownUserIds {
+
+    private static final int LOAD_BATCH = 10_000;
+
+    private final UserRepository userRepository;
+
+    private BitSet ids = new BitSet();
+    private final List<Long> removedDuringLoad = new ArrayList<>();
+    private boolean loading;
+    private volatile boolean ready;
+    // Растёт при каждом удалении: ответ базы, полученный до удаления, не возвращает идентификатор в набор
+    private long removals;
+
+    public KnownUserIds(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            loading = true;
+        }
+
+        BitSet fresh = new BitSet();
+        long lastId = 0;
+        List<Long> batch;
+        do {
+            batch = userRepository.findIdsGreaterThan(lastId, PageRequest.of(0, LOAD_BATCH));
+            for (Long id : batch) {
+                if (fits(id)) {
+                    fresh.set(id.intValue());
+                }
+                lastId = id;
+            }
+        } while (batch.size() == LOAD_BATCH);
+
+        synchronized (this) {
+            fresh.or(ids);
+            for (Long id : removedDuringLoad) {
+                fresh.clear(id.intValue());
+            }
+            removedDuringLoad.clear();
+            ids = fresh;
+            loading = false;
+            ready = true;
+        }
+        log.info("Загружены идентификаторы пользователей: {}", fresh.cardinality());
+    }
+
+    public boolean contains(long id) {
+        if (ready && fits(id)) {
+            synchronized (this) {
+                if (ids.get((int) id)) {
+                    return true;
+                }
+            }
+        }
+        long seenRemovals = removals();
+        if (!userRepository.existsById(id)) {
+            return false;
+        }
+        setUnlessRemoved(id, seenRemovals);
+        return true;
+    }
+
+    public void add(long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    set(id);
+                }
+            });
+        } else {
+            set(id);
+        }
+    }
+
+    // Удаление видно другим транзакциям только после фиксации, до неё пользователь ещё существует
+    public void remove(long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear(id);
+                }
+            });
+        } else {
+            clear(id);
+        }
+    }
+
+    private synchronized void clear(long id) {
+        removals++;
+        if (!fits(id)) {
+            return;
+        }
+        ids.clear((int) id);
+        if (loading) {
+            removedDuringLoad.add(id);
+        }
+    }
+
+    private synchronized long removals() {
+        return removals;
+    }
+
+    private synchronized void set(long id) {
+        if (fits(id)) {
+            ids.set((int) id);
+        }
+    }
+
+    private synchronized void setUnlessRemoved(long id, long seenRemovals) {
+        if (removals == seenRemovals) {
+            set(id);
+        }
+    }
+
+    private static boolean fits(long id) {
+        return id >= 0 && id < Integer.MAX_VALUE;
+    }
+}
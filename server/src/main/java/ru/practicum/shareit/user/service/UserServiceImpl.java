@@ -3,23 +3,43 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final KnownUserIds knownUserIds;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Override
     @Transactional
     public User createUser(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        knownUserIds.add(savedUser.getId());
+        return savedUser;
     }
 
     @Override
@@ -48,7 +68,32 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(long id) {
+        List<Long> deletedItemIds = itemRepository.findIdsDeletedWithUser(id);
+        if (itemSearchIndex.isEnabled()) {
+            itemSearchIndex.remove(deletedItemIds);
+        }
+        // Кроме удаляемых вещей меняются периоды вещей, которые пользователь бронировал
+        Set<Long> changedItemIds = new HashSet<>(deletedItemIds);
+        changedItemIds.addAll(bookingRepository.findItemIdsByBookerIdAndStatus(id, BookingStatus.APPROVED));
         userRepository.deleteById(id);
+        knownUserIds.remove(id);
+        // Вещи, запросы и бронирования пользователя удаляет каскад в базе, Hibernate о них не знает
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictOwnedEntities(changedItemIds);
+                }
+            });
+        } else {
+            evictOwnedEntities(changedItemIds);
+        }
+    }
+
+    private void evictOwnedEntities(Set<Long> changedItemIds) {
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.getCache().evict(ItemRequest.class);
+        bookingIntervalIndex.invalidate(changedItemIds);
     }
 
     @Override
@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS USERS,REQUESTS,BOOKINGS,ITEMS,COMMENTS;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_bookings_item_approved_period
+        EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status = 'APPROVED');
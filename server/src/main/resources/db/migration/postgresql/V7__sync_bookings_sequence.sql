@@ -0,0 +1 @@
+SELECT setval('bookings_seq', GREATEST((SELECT MAX(id) FROM bookings), 1));
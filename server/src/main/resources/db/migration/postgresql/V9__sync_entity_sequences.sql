@@ -0,0 +1,4 @@
+SELECT setval('users_seq', GREATEST((SELECT MAX(id) FROM users), 1));
+SELECT setval('requests_seq', GREATEST((SELECT MAX(id) FROM requests), 1));
+SELECT setval('items_seq', GREATEST((SELECT MAX(id) FROM items), 1));
+SELECT setval('comments_seq', GREATEST((SELECT MAX(id) FROM comments), 1));
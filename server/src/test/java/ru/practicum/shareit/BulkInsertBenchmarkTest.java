@@ -0,0 +1,184 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// Запуск: mvn -pl server test -Dtest=BulkInsertBenchmarkTest -Dshareit.benchmark=true
+// Для замеров на Postgres передать -Dspring.datasource.url=... -Dspring.datasource.username=... и т.д.
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(
+        properties = "spring.datasource.username=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BulkInsertBenchmarkTest {
+
+    private static final int ROWS = 5000;
+    private static final int ROUNDS = 3;
+    // Как hibernate.jdbc.batch_size
+    private static final int BATCH = 50;
+    // Вставки через identity-столбец не должны пересекаться с диапазонами последовательностей
+    private static final long IDENTITY_START = 1_000_000_000L;
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_BOOKING =
+            "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)";
+
+    private final UserService userService;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(userService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteUsers();
+    }
+
+    // identity: прежняя стратегия так, как её выполнял Hibernate - INSERT на каждую строку с возвратом ключа;
+    // identity batch: тот же столбец, но пакетами JDBC без возврата ключей - лучшее, что identity позволяет;
+    // pooled: последовательности с шагом 50 и пакетные вставки Hibernate
+    @Test
+    void bulkInsert_identityVersusPooledSequence() {
+        User owner = fixtures.owner("benchmark");
+        User booker = fixtures.booker("benchmark");
+        jdbcTemplate.execute("ALTER TABLE items ALTER COLUMN id RESTART WITH " + IDENTITY_START);
+        jdbcTemplate.execute("ALTER TABLE bookings ALTER COLUMN id RESTART WITH " + IDENTITY_START);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long started = System.nanoTime();
+            List<Long> itemIds = transactionTemplate.execute(status -> insertItemsByIdentity(owner.getId()));
+            long identityItems = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> insertItemsByIdentityBatch(owner.getId()));
+            long identityBatchItems = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            List<Item> items = transactionTemplate.execute(status ->
+                    itemRepository.saveAll(Fixtures.items(owner, ROWS, i -> "benchmark")));
+            long pooledItems = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status ->
+                    insertBookingsByIdentity(itemIds.get(0), booker.getId()));
+            long identityBookings = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status ->
+                    insertBookingsByIdentityBatch(itemIds.get(0), booker.getId()));
+            long identityBatchBookings = System.nanoTime() - started;
+
+            started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                Item item = itemRepository.getReferenceById(items.get(0).getId());
+                bookingRepository.saveAll(Fixtures.hourlyBookings(booker, ROWS, i -> item, BookingStatus.WAITING));
+            });
+            long pooledBookings = System.nanoTime() - started;
+
+            assertThat(itemIds.stream().filter(Objects::nonNull).distinct().count(), equalTo((long) ROWS));
+            assertThat(items.stream().map(Item::getId).filter(Objects::nonNull).distinct().count(),
+                    equalTo((long) ROWS));
+            log.info("Раунд {}: вещи identity {} стр/с, identity batch {} стр/с, pooled {} стр/с; "
+                            + "бронирования identity {} стр/с, identity batch {} стр/с, pooled {} стр/с", round,
+                    throughput(identityItems), throughput(identityBatchItems), throughput(pooledItems),
+                    throughput(identityBookings), throughput(identityBatchBookings), throughput(pooledBookings));
+        }
+    }
+
+    private List<Long> insertItemsByIdentity(long ownerId) {
+        List<Long> ids = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String name = "item" + i;
+            KeyHolder key = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_ITEM, Statement.RETURN_GENERATED_KEYS);
+                statement.setString(1, name);
+                statement.setString(2, "benchmark");
+                statement.setBoolean(3, true);
+                statement.setLong(4, ownerId);
+                return statement;
+            }, key);
+            ids.add(Objects.requireNonNull(key.getKey()).longValue());
+        }
+        return ids;
+    }
+
+    private void insertItemsByIdentityBatch(long ownerId) {
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{"item" + i, "benchmark", true, ownerId});
+        }
+        for (int from = 0; from < ROWS; from += BATCH) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM, rows.subList(from, Math.min(from + BATCH, ROWS)));
+        }
+    }
+
+    private void insertBookingsByIdentity(long itemId, long bookerId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            Timestamp from = Timestamp.valueOf(start.plusHours(i));
+            Timestamp to = Timestamp.valueOf(start.plusHours(i + 1));
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement =
+                        connection.prepareStatement(INSERT_BOOKING, Statement.RETURN_GENERATED_KEYS);
+                statement.setTimestamp(1, from);
+                statement.setTimestamp(2, to);
+                statement.setLong(3, itemId);
+                statement.setLong(4, bookerId);
+                statement.setString(5, BookingStatus.WAITING.name());
+                return statement;
+            }, new GeneratedKeyHolder());
+        }
+    }
+
+    private void insertBookingsByIdentityBatch(long itemId, long bookerId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{Timestamp.valueOf(start.plusHours(i)), Timestamp.valueOf(start.plusHours(i + 1)),
+                    itemId, bookerId, BookingStatus.WAITING.name()});
+        }
+        for (int from = 0; from < ROWS; from += BATCH) {
+            jdbcTemplate.batchUpdate(INSERT_BOOKING, rows.subList(from, Math.min(from + BATCH, ROWS)));
+        }
+    }
+
+    private static long throughput(long nanos) {
+        return ROWS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
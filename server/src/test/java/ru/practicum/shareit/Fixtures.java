@@ -0,0 +1,65 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+// Данные интеграционных тестов. База H2 общая для всех тестов с одним контекстом, поэтому созданных пользователей
+// тест удаляет в @AfterEach (deleteUsers), а с ними каскадно их вещи и бронирования
+public class Fixtures {
+
+    private final UserService userService;
+    private final List<Long> userIds = new ArrayList<>();
+
+    public Fixtures(UserService userService) {
+        this.userService = userService;
+    }
+
+    public User owner(String test) {
+        return user("owner", test + "-owner@mail.ru");
+    }
+
+    public User booker(String test) {
+        return user("booker", test + "-booker@mail.ru");
+    }
+
+    public void deleteUsers() {
+        for (Long id : userIds) {
+            userService.deleteUser(id);
+        }
+        userIds.clear();
+    }
+
+    public static List<Item> items(User owner, int count, IntFunction<String> description) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(Item.builder().name("item" + i).description(description.apply(i)).available(true).owner(owner)
+                    .build());
+        }
+        return items;
+    }
+
+    // Бронирования по часу подряд начиная с завтрашнего дня
+    public static List<Booking> hourlyBookings(User booker, int count, IntFunction<Item> item, BookingStatus status) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bookings.add(Booking.builder().start(start.plusHours(i)).end(start.plusHours(i + 1))
+                    .item(item.apply(i)).booker(booker).status(status).build());
+        }
+        return bookings;
+    }
+
+    private User user(String name, String email) {
+        User user = userService.createUser(User.builder().name(name).email(email).build());
+        userIds.add(user.getId());
+        return user;
+    }
+}
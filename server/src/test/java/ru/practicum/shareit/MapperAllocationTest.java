@@ -0,0 +1,157 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.util.BookingState;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.dto.CommentMapper;
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Память, выделяемая мапперами на вызов, в сравнении с прежней реализацией через билдеры и stream.
+// Замеры зависят от JIT и сборщика, поэтому только по запросу; постоянные замеры - MapperBenchmark с -prof gc
+// Запуск: mvn -pl server test -Dtest=MapperAllocationTest -Dshareit.benchmark=true
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class MapperAllocationTest {
+
+    private static final int PAGE = 20;
+    private static final int CALLS = 20_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private List<Item> items;
+    private List<User> users;
+    private Booking booking;
+    private Comment comment;
+    private Object sink;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        User owner = new User(1L, "owner", "owner@mail.ru");
+        User booker = new User(2L, "booker", "booker@mail.ru");
+        ItemRequest request = ItemRequest.builder().id(3L).description("Нужна дрель").requestor(booker).created(now)
+                .build();
+        items = new ArrayList<>(PAGE);
+        users = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            items.add(Item.builder().id(1000L + i).name("Дрель №" + i).description("Дрель ударная").available(true)
+                    .owner(owner).request(i % 2 == 0 ? request : null).build());
+            users.add(new User(1000L + i, "user" + i, "user" + i + "@mail.ru"));
+        }
+        booking = Booking.builder().id(1000L).start(now).end(now.plusDays(1)).item(items.get(0)).booker(booker)
+                .status(BookingStatus.APPROVED).build();
+        comment = Comment.builder().id(1000L).text("Отличная дрель").item(items.get(0)).author(booker).created(now)
+                .build();
+    }
+
+    @Test
+    void itemPage_allocatesLessThanStream() {
+        assertThat(ItemMapper.toItemDto(items), equalTo(oldItemDto(items)));
+        assertThat(bytesPerCall(() -> ItemMapper.toItemDto(items)), lessThan(bytesPerCall(() -> oldItemDto(items))));
+    }
+
+    @Test
+    void userPage_allocatesLessThanStream() {
+        assertThat(bytesPerCall(() -> UserMapper.toUserDto(users)), lessThan(bytesPerCall(() -> oldUserDto(users))));
+    }
+
+    @Test
+    void booking_allocatesNoMoreThanBuilders() {
+        BookingResponseDto dto = BookingMapper.toDto(booking);
+        assertThat(dto.getItem(), equalTo(oldBookingDto(booking).getItem()));
+        assertThat(dto.getBooker().getId(), equalTo(booking.getBooker().getId()));
+        assertThat(dto.getStatus(), equalTo(booking.getStatus()));
+        assertThat(bytesPerCall(() -> BookingMapper.toDto(booking)),
+                lessThanOrEqualTo(bytesPerCall(() -> oldBookingDto(booking))));
+    }
+
+    @Test
+    void comment_allocatesNoMoreThanBuilder() {
+        assertThat(CommentMapper.toDto(comment), equalTo(oldCommentDto(comment)));
+        assertThat(bytesPerCall(() -> CommentMapper.toDto(comment)),
+                lessThanOrEqualTo(bytesPerCall(() -> oldCommentDto(comment))));
+    }
+
+    @Test
+    void checkState_knownState_allocatesNothing() {
+        assertThat(bytesPerCall(() -> BookingState.checkState("rejected")), lessThan(1L));
+    }
+
+    private long bytesPerCall(Supplier<Object> mapper) {
+        for (int i = 0; i < CALLS; i++) {
+            sink = mapper.get();
+        }
+        long thread = Thread.currentThread().getId();
+        long started = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < CALLS; i++) {
+            sink = mapper.get();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - started) / CALLS;
+    }
+
+    private static List<ItemResponseDto> oldItemDto(List<Item> items) {
+        return items.stream()
+                .map(item -> ItemResponseDto.builder()
+                        .id(item.getId())
+                        .name(item.getName())
+                        .description(item.getDescription())
+                        .available(item.getAvailable())
+                        .requestId(item.getRequest() != null ? item.getRequest().getId() : 0)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<UserDto> oldUserDto(List<User> users) {
+        return users.stream()
+                .map(user -> UserDto.builder().id(user.getId()).name(user.getName()).email(user.getEmail()).build())
+                .collect(Collectors.toList());
+    }
+
+    private static BookingResponseDto oldBookingDto(Booking booking) {
+        return BookingResponseDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .booker(UserDto.builder().id(booking.getBooker().getId()).build())
+                .item(ItemDto.builder().id(booking.getItem().getId()).name(booking.getItem().getName()).build())
+                .build();
+    }
+
+    private static CommentResponseDto oldCommentDto(Comment comment) {
+        return CommentResponseDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .authorName(comment.getAuthor().getName())
+                .created(comment.getCreated())
+                .build();
+    }
+}
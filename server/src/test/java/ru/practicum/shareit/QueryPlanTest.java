@@ -0,0 +1,131 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingState;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$CapturingInspector")
+class QueryPlanTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(BOOKINGS|ITEMS|COMMENTS|REQUESTS)\\.tableScan");
+    private static final List<String> CAPTURED = new ArrayList<>();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private final Pageable page = PageRequest.of(0, 10, Sort.by("start").descending());
+
+    @BeforeEach
+    void setUp() {
+        CAPTURED.clear();
+    }
+
+    @Test
+    void bookingQueries_doNotScanBigTables() {
+        bookingRepository.findAllByBookerId(1L, page);
+        bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(1L, now, now, page);
+        bookingRepository.findAllByBookerIdAndEndIsBefore(1L, now, page);
+        bookingRepository.findAllByBookerIdAndStartIsAfter(1L, now, page);
+        bookingRepository.findAllByBookerIdAndStatus(1L, BookingStatus.WAITING, page);
+        bookingRepository.findAllByItemOwnerId(1L, page);
+        bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(1L, now, now, page);
+        bookingRepository.findAllByItemOwnerIdAndEndIsBefore(1L, now, page);
+        bookingRepository.findAllByItemOwnerIdAndStartIsAfter(1L, now, page);
+        bookingRepository.findAllByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, page);
+        bookingRepository.findAllByBookerIdAndStateAfter(1L, BookingState.ALL, now, null, 10);
+        bookingRepository.findAllByItemOwnerIdAndStateAfter(1L, BookingState.ALL, now, null, 10);
+        bookingRepository.existsAllByItemIdAndEndIsBeforeAndBooker_IdEquals(1L, now, 1L);
+        bookingRepository.findLastAndNextByItemIds(List.of(1L, 2L), now, BookingStatus.APPROVED.name());
+        bookingRepository.existsOverlapping(1L, BookingStatus.APPROVED, now, now.plusDays(1));
+        bookingRepository.findPeriodsEndingAfter(1L, BookingStatus.APPROVED, now);
+        bookingRepository.streamAllByItemOwnerId(1L).close();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemCommentAndRequestQueries_doNotScanBigTables() {
+        itemRepository.findViewById(1L);
+        itemRepository.findAllByOwnerIdOrderByIdAsc(1L, PageRequest.of(0, 10));
+        itemRepository.findAllByRequestIdIn(List.of(1L, 2L));
+        itemRepository.findAllByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10));
+        commentRepository.findAllByItemIdIn(List.of(1L, 2L));
+        itemRequestRepository.findViewById(1L);
+        itemRequestRepository.findAllByRequestorId(1L);
+        // findAllByRequestorIdIsNot читает всю таблицу по определению: на Postgres это обход ix_requests_created
+        // с LIMIT, H2 такой план не выбирает, поэтому запрос здесь не проверяется.
+
+        assertNoTableScans();
+    }
+
+    private void assertNoTableScans() {
+        assertThat(CAPTURED, not(empty()));
+        List<String> scans = new ArrayList<>();
+        for (String sql : CAPTURED) {
+            String plan = explain(sql);
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            if (matcher.find()) {
+                scans.add(plan);
+            }
+        }
+        assertThat(scans, empty());
+    }
+
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= parameters; i++) {
+                ps.setObject(i, null);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        });
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                CAPTURED.add(sql);
+            }
+            return sql;
+        }
+    }
+}
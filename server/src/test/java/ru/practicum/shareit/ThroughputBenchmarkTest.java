@@ -0,0 +1,158 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+// Наибольшая устойчивая частота GET /items/search и GET /bookings на обычных потоках Tomcat.
+// Сравнения с виртуальными потоками нет: для них нужна сборка на Java 21
+// Запуск: mvn -pl server test -Dtest=ThroughputBenchmarkTest -Dshareit.benchmark=true
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+@SpringBootTest(
+        properties = "spring.datasource.username=test",
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ThroughputBenchmarkTest {
+
+    private static final int ITEMS = 2000;
+    private static final int BOOKINGS = 500;
+    private static final int[] CONCURRENCY = {50, 200, 800};
+    private static final long WARMUP_MILLIS = 3000;
+    private static final long MEASURE_MILLIS = 10000;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @LocalServerPort
+    private int port;
+
+    private static final ExecutorService CLIENT_EXECUTOR = Executors.newCachedThreadPool();
+    private static final HttpClient CLIENT = HttpClient.newBuilder().executor(CLIENT_EXECUTOR).build();
+
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(userService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteUsers();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        CLIENT_EXECUTOR.shutdownNow();
+    }
+
+    @Test
+    void searchAndBookings_maxSustainedThroughput() throws Exception {
+        User owner = fixtures.owner("throughput");
+        User booker = fixtures.booker("throughput");
+        List<Item> items = transactionTemplate.execute(status -> itemRepository.saveAll(
+                Fixtures.items(owner, ITEMS, i -> i % 10 == 0 ? "throughput" : "benchmark")));
+        items.forEach(itemSearchIndex::index);
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.saveAll(Fixtures.hourlyBookings(booker,
+                BOOKINGS, i -> itemRepository.getReferenceById(items.get(i).getId()), BookingStatus.APPROVED)));
+
+        double search = measure(HttpRequest.newBuilder(uri("/items/search?text=throughput&from=0&size=20")).build());
+        double bookings = measure(HttpRequest.newBuilder(uri("/bookings?state=ALL&from=0&size=20"))
+                .header("X-Sharer-User-Id", String.valueOf(booker.getId())).build());
+        log.info("Максимум GET /items/search {} запр/с, GET /bookings {} запр/с",
+                Math.round(search), Math.round(bookings));
+
+        assertThat(search, greaterThan(0.0));
+        assertThat(bookings, greaterThan(0.0));
+    }
+
+    private double measure(HttpRequest request) throws InterruptedException {
+        double best = 0;
+        for (int concurrency : CONCURRENCY) {
+            run(request, concurrency, WARMUP_MILLIS);
+            Result result = run(request, concurrency, MEASURE_MILLIS);
+            double rps = result.ok * 1000.0 / MEASURE_MILLIS;
+            log.info("{} {}: {} одновременных запросов, {} запр/с, ошибок {}",
+                    request.method(), request.uri().getPath(), concurrency, Math.round(rps), result.failed);
+            // Уровень с ошибками не считается устойчивым
+            if (result.failed == 0) {
+                best = Math.max(best, rps);
+            }
+        }
+        return best;
+    }
+
+    private Result run(HttpRequest request, int concurrency, long millis) throws InterruptedException {
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long deadline = System.currentTimeMillis() + millis;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            callers.execute(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    try {
+                        HttpResponse<Void> response = CLIENT.send(request, HttpResponse.BodyHandlers.discarding());
+                        (response.statusCode() == 200 ? ok : failed).incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        callers.shutdown();
+        callers.awaitTermination(1, TimeUnit.MINUTES);
+        return new Result(ok.get(), failed.get());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static final class Result {
+        private final long ok;
+        private final long failed;
+
+        private Result(long ok, long failed) {
+            this.ok = ok;
+            this.failed = failed;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.util.BookingStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// Запуск: mvn -pl server test -Dtest=WireFormatBenchmarkTest -Dshareit.benchmark=true
+@Slf4j
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class WireFormatBenchmarkTest {
+
+    private static final int ROWS = 100;
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 20_000;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper smile = Jackson2ObjectMapperBuilder.smile().build();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void bookingsPage_jsonVersusSmile() throws IOException {
+        List<BookingResponseDto> page = newPage();
+        byte[] jsonPage = json.writeValueAsBytes(page);
+        byte[] smilePage = smile.writeValueAsBytes(page);
+        List<BookingRequestDto> requests = newRequests();
+        byte[] jsonRequests = json.writeValueAsBytes(requests);
+        byte[] smileRequests = smile.writeValueAsBytes(requests);
+        assertThat(transcode(smilePage).length, equalTo(jsonPage.length));
+
+        log.info("Страница из {} бронирований: JSON {} байт, Smile {} байт", ROWS, jsonPage.length, smilePage.length);
+        log.info("Сервер, запись страницы: JSON {} мкс, Smile {} мкс",
+                cpuMicros(() -> json.writeValueAsBytes(page)), cpuMicros(() -> smile.writeValueAsBytes(page)));
+        log.info("Шлюз, ответ клиенту в JSON: передача как есть 0 мкс, перекодирование из Smile {} мкс",
+                cpuMicros(() -> transcode(smilePage)));
+        log.info("Сервер, чтение {} заявок: JSON {} байт {} мкс, Smile {} байт {} мкс", ROWS,
+                jsonRequests.length, cpuMicros(() -> json.readValue(jsonRequests, new TypeReference<List<Object>>() {
+                })),
+                smileRequests.length, cpuMicros(() -> smile.readValue(smileRequests, new TypeReference<List<Object>>() {
+                })));
+    }
+
+    private byte[] transcode(byte[] smilePage) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(smilePage.length * 2);
+        try (JsonParser parser = smile.getFactory().createParser(smilePage);
+             JsonGenerator generator = json.getFactory().createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toByteArray();
+    }
+
+    private double cpuMicros(Action action) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            action.run();
+        }
+        long started = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        return Math.round((threads.getCurrentThreadCpuTime() - started) / 1000.0 / ITERATIONS * 10) / 10.0;
+    }
+
+    private List<BookingResponseDto> newPage() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        List<BookingResponseDto> page = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            page.add(new BookingResponseDto(1_000_000L + i, start.plusHours(i), start.plusHours(i + 2),
+                    BookingStatus.APPROVED, 42L, 7_000L + i, "Дрель ударная №" + i));
+        }
+        return page;
+    }
+
+    private List<BookingRequestDto> newRequests() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        List<BookingRequestDto> requests = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            requests.add(BookingRequestDto.builder().itemId(7_000L + i)
+                    .start(start.plusHours(i)).end(start.plusHours(i + 2)).build());
+        }
+        return requests;
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.exception.IncorrectRequestException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(
+        properties = "spring.datasource.username=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingApprovalConcurrencyTest {
+
+    private static final int ITEMS = 3;
+    private static final int BOOKINGS_PER_ITEM = 8;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private Fixtures fixtures;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(userService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        fixtures.deleteUsers();
+    }
+
+    @Test
+    void approve_whenOverlappingBookingsApprovedConcurrently_thenOnlyOnePerItem() throws Exception {
+        User owner = fixtures.owner("concurrent");
+        User booker = fixtures.booker("concurrent");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Long> itemIds = new ArrayList<>();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemService.createItem(Item.builder().name("item" + i).description("cool").available(true).build(),
+                    owner.getId());
+            itemIds.add(item.getId());
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                Booking booking = Booking.builder().start(start.plusHours(j)).end(start.plusDays(1).plusHours(j)).build();
+                bookingIds.add(bookingService.createBooking(booking, booker.getId(), item.getId()).getId());
+            }
+        }
+
+        executor = Executors.newFixedThreadPool(bookingIds.size());
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            results.add(executor.submit(() -> {
+                ready.await();
+                return bookingService.acceptOrRejectBooking(owner.getId(), bookingId, true);
+            }));
+        }
+        ready.countDown();
+
+        int approved = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get(30, TimeUnit.SECONDS);
+                approved++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause().getClass(), equalTo(IncorrectRequestException.class));
+            }
+        }
+
+        assertThat(approved, equalTo(ITEMS));
+        for (Long itemId : itemIds) {
+            List<Booking> approvedBookings = bookingRepository.findAll().stream()
+                    .filter(b -> b.getItem().getId().equals(itemId) && b.getStatus() == BookingStatus.APPROVED)
+                    .collect(Collectors.toList());
+            assertThat(approvedBookings.size(), equalTo(1));
+            Booking winner = approvedBookings.get(0);
+            List<Booking> overlapping = approvedBookings.stream()
+                    .filter(b -> !b.getId().equals(winner.getId())
+                            && b.getStart().isBefore(winner.getEnd()) && b.getEnd().isAfter(winner.getStart()))
+                    .collect(Collectors.toList());
+            assertThat(overlapping, empty());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.Fixtures;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(
+        properties = "spring.datasource.username=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingBatchIntegrationTest {
+
+    private static final int BOOKINGS = 100;
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final EntityManagerFactory entityManagerFactory;
+    private Fixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new Fixtures(userService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteUsers();
+    }
+
+    @Test
+    void createBookings_whenManyEntries_thenInsertedInJdbcBatches() {
+        User owner = fixtures.owner("batch");
+        User booker = fixtures.booker("batch");
+        Item item = itemService.createItem(Item.builder().name("item").description("cool").available(true).build(),
+                owner.getId());
+        Item unavailable = itemService.createItem(Item.builder().name("item2").description("cool").available(false).build(),
+                owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            requests.add(new BookingRequestDto(item.getId(), start.plusHours(i), start.plusHours(i + 1)));
+        }
+        requests.add(new BookingRequestDto(unavailable.getId(), start, start.plusHours(1)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingBatchResultDto> results = bookingService.createBookings(requests, booker.getId());
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(results.size(), equalTo(BOOKINGS + 1));
+        assertThat(results.stream().filter(r -> r.getBooking() != null)
+                .map(r -> r.getBooking().getId()).filter(Objects::nonNull).distinct().count(), equalTo((long) BOOKINGS));
+        assertThat(results.get(BOOKINGS).getError(), equalTo("Вещь недоступна для бронирования."));
+        assertThat(statements, lessThan(10L));
+    }
+}
@@ -5,27 +5,43 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.WireFormatConfig;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.util.BookingCursor;
 import ru.practicum.shareit.booking.util.BookingStatus;
+import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
+@Import(WireFormatConfig.class)
 class BookingControllerTest {
 
     @MockBean
@@ -37,6 +53,9 @@ class BookingControllerTest {
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
 
     private final BookingRequestDto bookingDto = BookingRequestDto.builder().itemId(1L)
             .start(LocalDateTime.now().plusDays(1))
@@ -68,6 +87,24 @@ class BookingControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(BookingMapper.toDto(booking))));
     }
 
+    @Test
+    void saveNewBooking_whenSmile_thenSmileResponse() throws Exception {
+        when(bookingService.createBooking(any(), anyLong(), anyLong())).thenReturn(booking);
+        ObjectMapper smileMapper = smileConverter.getObjectMapper();
+
+        MvcResult result = mvc.perform(post("/bookings")
+                        .content(smileMapper.writeValueAsBytes(bookingDto))
+                        .contentType("application/x-jackson-smile")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+
+        assertThat(smileMapper.readTree(result.getResponse().getContentAsByteArray()),
+                equalTo(mapper.readTree(mapper.writeValueAsString(BookingMapper.toDto(booking)))));
+    }
+
     @Test
     void saveNewBooking_whenNoStart_thenThrownException() throws Exception {
         mvc.perform(post("/bookings")
@@ -79,6 +116,59 @@ class BookingControllerTest {
                 .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    void saveNewBookings() throws Exception {
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().booking(BookingMapper.toDto(booking)).build(),
+                BookingBatchResultDto.builder().error("Вещь не найдена.").build());
+        when(bookingService.createBookings(anyList(), anyLong())).thenReturn(results);
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(results)));
+    }
+
+    @Test
+    void exportAllOwnedItemBookings() throws Exception {
+        BookingResponseDto bookingResponseDto = BookingMapper.toDto(booking);
+        doAnswer(invocation -> {
+            Consumer<BookingResponseDto> consumer = invocation.getArgument(1);
+            consumer.accept(bookingResponseDto);
+            consumer.accept(bookingResponseDto);
+            return null;
+        }).when(bookingService).exportAllOwnedItemBookings(eq(1L), any());
+        String line = mapper.writeValueAsString(bookingResponseDto) + "\n";
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(line + line));
+    }
+
+    @Test
+    void exportAllOwnedItemBookings_whenUserNotFound_thenNotFound() throws Exception {
+        doThrow(new EntityNotFoundException("Пользователь не найден.", getClass().toString()))
+                .when(bookingService).exportAllOwnedItemBookings(eq(1L), any());
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void approve() throws Exception {
         when(bookingService.acceptOrRejectBooking(anyLong(), any(), any())).thenReturn(booking);
@@ -111,7 +201,7 @@ class BookingControllerTest {
     @Test
     void getAllByBooker() throws Exception {
         when(bookingService.getAllBookingsByUserAndState(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         mvc.perform(get("/bookings?state=ALL")
                         .content(mapper.writeValueAsString(booking))
@@ -126,7 +216,7 @@ class BookingControllerTest {
     @Test
     void getAllByOwner() throws Exception {
         when(bookingService.getAllOwnedItemBookingsByState(anyLong(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
 
         mvc.perform(get("/bookings/owner?state=ALL")
                         .content(mapper.writeValueAsString(booking))
@@ -137,4 +227,31 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(mapper.writeValueAsString(List.of(BookingMapper.toDto(booking)))));
     }
+
+    @Test
+    void getAllByOwner_whenCursorGivenAndPageFull_thenNextCursorReturned() throws Exception {
+        when(bookingService.getAllOwnedItemBookingsByStateAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
+
+        mvc.perform(get("/bookings/owner?state=ALL&size=1&cursor=")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", BookingCursor.of(BookingMapper.toDto(booking)).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(BookingMapper.toDto(booking)))));
+    }
+
+    @Test
+    void getAllByBooker_whenCursorGivenAndPageNotFull_thenNoNextCursor() throws Exception {
+        when(bookingService.getAllBookingsByUserAndStateAfter(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(List.of(BookingMapper.toDto(booking)));
+
+        mvc.perform(get("/bookings?state=ALL&size=10&cursor=abc")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
 }
\ No newline at end of file
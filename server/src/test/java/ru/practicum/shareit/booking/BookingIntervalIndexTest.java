@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingPeriod;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    private final LocalDateTime day = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndex(bookingRepository, 10_000, Duration.ofHours(1));
+        when(bookingRepository.findPeriodsEndingAfter(eq(1L), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(period(day, day.plusDays(2)), period(day.plusDays(5), day.plusDays(6))));
+    }
+
+    @Test
+    void overlaps_whenPeriodIntersectsApprovedBooking_thenTrue() {
+        Assertions.assertTrue(index.overlaps(1L, day.plusDays(1), day.plusDays(3)));
+        Assertions.assertTrue(index.overlaps(1L, day.plusDays(3), day.plusDays(7)));
+        Assertions.assertTrue(index.overlaps(1L, day.minusDays(1), day.plusDays(10)));
+    }
+
+    @Test
+    void overlaps_whenPeriodFitsBetweenApprovedBookings_thenFalse() {
+        Assertions.assertFalse(index.overlaps(1L, day.plusDays(2), day.plusDays(5)));
+        Assertions.assertFalse(index.overlaps(1L, day.plusDays(6), day.plusDays(7)));
+        verify(bookingRepository, times(1)).findPeriodsEndingAfter(anyLong(), any(), any());
+    }
+
+    @Test
+    void add_whenItemLoaded_thenNewPeriodVisible() {
+        Assertions.assertFalse(index.overlaps(1L, day.plusDays(3), day.plusDays(4)));
+
+        index.add(1L, day.plusDays(3), day.plusDays(4));
+
+        Assertions.assertTrue(index.overlaps(1L, day.plusDays(3), day.plusDays(4)));
+    }
+
+    @Test
+    void invalidate_thenOnlyGivenItemsLoadedAgain() {
+        when(bookingRepository.findPeriodsEndingAfter(eq(2L), eq(BookingStatus.APPROVED), any())).thenReturn(List.of());
+        index.overlaps(1L, day, day.plusDays(1));
+        index.overlaps(2L, day, day.plusDays(1));
+
+        index.invalidate(List.of(1L));
+        index.overlaps(1L, day, day.plusDays(1));
+        index.overlaps(2L, day, day.plusDays(1));
+
+        verify(bookingRepository, times(2)).findPeriodsEndingAfter(eq(1L), any(), any());
+        verify(bookingRepository, times(1)).findPeriodsEndingAfter(eq(2L), any(), any());
+    }
+
+    @Test
+    void overlaps_whenItemExpired_thenPeriodsLoadedAgain() {
+        index = new BookingIntervalIndex(bookingRepository, 10_000, Duration.ZERO);
+
+        index.overlaps(1L, day, day.plusDays(1));
+        index.add(1L, day.plusDays(3), day.plusDays(4));
+        index.overlaps(1L, day, day.plusDays(1));
+
+        verify(bookingRepository, times(2)).findPeriodsEndingAfter(anyLong(), any(), any());
+    }
+
+    private static BookingPeriod period(LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod() {
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
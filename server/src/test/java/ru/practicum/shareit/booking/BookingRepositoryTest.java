@@ -1,13 +1,22 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.booking.util.BookingState;
 import ru.practicum.shareit.booking.util.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -16,11 +25,14 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class BookingRepositoryTest {
 
     @Autowired
@@ -29,6 +41,8 @@ class BookingRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private TestEntityManager entityManager;
 
     private final User user = User.builder().name("user").email("user@mail.ru").build();
     private final User booker = User.builder().name("user2").email("user2@mail.ru").build();
@@ -52,9 +66,158 @@ class BookingRepositoryTest {
     @Test
     @DirtiesContext
     void findAllByBookerId() {
-        List<Booking> bookings = bookingRepository.findAllByBookerId(2L, Pageable.ofSize(10));
+        List<BookingResponseDto> bookings = bookingRepository.findAllByBookerId(2L, Pageable.ofSize(10));
 
         assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
         assertThat(bookings.size(), equalTo(1));
     }
+
+    @Test
+    @DirtiesContext
+    void findAllByItemOwnerIdAndStateAfter_whenPagingWithCursor_thenPagesDoNotOverlap() {
+        LocalDateTime sameStart = LocalDateTime.of(2023, 8, 1, 12, 0);
+        for (int i = 0; i < 3; i++) {
+            bookingRepository.save(Booking.builder().start(sameStart).end(sameStart.plusDays(1))
+                    .item(item).booker(booker).status(BookingStatus.WAITING).build());
+        }
+        LocalDateTime now = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+        List<BookingResponseDto> firstPage = bookingRepository.findAllByItemOwnerIdAndStateAfter(user.getId(),
+                BookingState.ALL, now, null, 2);
+        List<BookingResponseDto> secondPage = bookingRepository.findAllByItemOwnerIdAndStateAfter(user.getId(),
+                BookingState.ALL, now, BookingCursor.of(firstPage.get(1)), 2);
+
+        assertThat(ids(firstPage), equalTo(List.of(4L, 3L)));
+        assertThat(ids(secondPage), equalTo(List.of(2L, 1L)));
+    }
+
+    @Test
+    @DirtiesContext
+    void findAllByBookerIdAndStateAfter_whenStateFuture_thenOnlyFutureBookings() {
+        List<BookingResponseDto> future = bookingRepository.findAllByBookerIdAndStateAfter(booker.getId(), BookingState.FUTURE,
+                LocalDateTime.of(2023, 7, 15, 0, 0), null, 10);
+        List<BookingResponseDto> past = bookingRepository.findAllByBookerIdAndStateAfter(booker.getId(), BookingState.PAST,
+                LocalDateTime.of(2023, 8, 15, 0, 0), null, 10);
+
+        assertThat(future.size(), equalTo(0));
+        assertThat(ids(past), equalTo(List.of(1L)));
+    }
+
+    @Test
+    @DirtiesContext
+    void existsOverlapping_whenApprovedPeriodIntersects_thenTrue() {
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        itemRepository.findLockedById(item.getId());
+
+        assertThat(bookingRepository.existsOverlapping(item.getId(), BookingStatus.APPROVED,
+                booking.getEnd().minusDays(1), booking.getEnd().plusDays(1)), equalTo(true));
+        assertThat(bookingRepository.existsOverlapping(item.getId(), BookingStatus.APPROVED,
+                booking.getEnd(), booking.getEnd().plusDays(1)), equalTo(false));
+        assertThat(bookingRepository.findPeriodsEndingAfter(item.getId(), BookingStatus.APPROVED,
+                booking.getStart()).get(0).getEnd(), equalTo(booking.getEnd()));
+    }
+
+    @Test
+    @DirtiesContext
+    void findItemIdsByBookerIdAndStatus_whenSeveralBookingsOfItem_thenItemOnce() {
+        Item other = itemRepository.save(Item.builder().description("other").name("other").available(true)
+                .owner(user).build());
+        LocalDateTime start = LocalDateTime.of(2023, 9, 1, 0, 0);
+        saveApproved(item, start, start.plusDays(1));
+        saveApproved(item, start.plusDays(2), start.plusDays(3));
+        bookingRepository.save(Booking.builder().start(start).end(start.plusDays(1))
+                .item(other).booker(booker).status(BookingStatus.WAITING).build());
+
+        assertThat(bookingRepository.findItemIdsByBookerIdAndStatus(booker.getId(), BookingStatus.APPROVED),
+                equalTo(List.of(item.getId())));
+        assertThat(bookingRepository.findItemIdsByBookerIdAndStatus(user.getId(), BookingStatus.APPROVED).isEmpty(),
+                equalTo(true));
+    }
+
+    @Test
+    @DirtiesContext
+    void findLastAndNextByItemIds_whenManyBookings_thenOneLastAndOneNextPerItem() {
+        Item other = itemRepository.save(Item.builder().description("other").name("other").available(true)
+                .owner(user).build());
+        LocalDateTime now = LocalDateTime.of(2023, 9, 1, 0, 0);
+        for (int day = 1; day <= 5; day++) {
+            saveApproved(item, now.minusDays(10 + day), now.minusDays(day));
+            saveApproved(item, now.plusDays(day), now.plusDays(10 + day));
+        }
+        Booking otherLast = saveApproved(other, now.minusDays(3), now.plusDays(1));
+        Booking itemLast = bookingRepository.findAll().stream()
+                .filter(b -> b.getItem() == item && b.getEnd().equals(now.minusDays(1)))
+                .findFirst().orElseThrow();
+        Booking itemNext = bookingRepository.findAll().stream()
+                .filter(b -> b.getItem() == item && b.getEnd().equals(now.plusDays(11)))
+                .findFirst().orElseThrow();
+
+        Map<String, Long> found = bookingRepository
+                .findLastAndNextByItemIds(List.of(item.getId(), other.getId()), now, BookingStatus.APPROVED.name())
+                .stream()
+                .collect(Collectors.toMap(b -> b.getItemId() + b.getKind(), BookingShort::getId));
+
+        assertThat(found, equalTo(Map.of(
+                item.getId() + BookingShort.LAST, itemLast.getId(),
+                item.getId() + BookingShort.NEXT, itemNext.getId(),
+                other.getId() + BookingShort.LAST, otherLast.getId())));
+    }
+
+    @Test
+    @DirtiesContext
+    void listings_whenBookingsSpanManyItemsOwnersAndBookers_thenSingleStatement() {
+        LocalDateTime start = LocalDateTime.of(2023, 8, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            User owner = userRepository.save(User.builder().name("owner" + i).email("owner" + i + "@mail.ru").build());
+            User otherBooker = userRepository.save(User.builder().name("booker" + i).email("booker" + i + "@mail.ru")
+                    .build());
+            Item ownersItem = itemRepository.save(Item.builder().name("item" + i).description("item" + i)
+                    .available(true).owner(owner).build());
+            bookingRepository.save(Booking.builder().start(start.plusDays(i)).end(start.plusDays(i + 1))
+                    .item(ownersItem).booker(booker).status(BookingStatus.WAITING).build());
+            bookingRepository.save(Booking.builder().start(start.plusDays(i)).end(start.plusDays(i + 1))
+                    .item(item).booker(otherBooker).status(BookingStatus.WAITING).build());
+        }
+        LocalDateTime now = LocalDateTime.of(2023, 1, 1, 0, 0);
+        Pageable page = PageRequest.of(0, 20, Sort.by("start").descending());
+
+        assertSingleStatement(() -> bookingRepository.findAllByBookerId(booker.getId(), page));
+        assertSingleStatement(() -> bookingRepository.findAllByBookerIdAndStartIsAfter(booker.getId(), now, page));
+        assertSingleStatement(() -> bookingRepository.findAllByItemOwnerId(user.getId(), page));
+        assertSingleStatement(() -> bookingRepository.findAllByItemOwnerIdAndStatus(user.getId(),
+                BookingStatus.WAITING, page));
+        assertSingleStatement(() -> bookingRepository.findAllByBookerIdAndStateAfter(booker.getId(),
+                BookingState.ALL, now, null, 20));
+        assertSingleStatement(() -> bookingRepository.findAllByItemOwnerIdAndStateAfter(user.getId(),
+                BookingState.ALL, now, null, 20));
+        assertSingleStatement(() -> {
+            Booking found = bookingRepository.findById(booking.getId()).orElseThrow();
+            found.getItem().getOwner().getName();
+            found.getBooker().getName();
+            return List.of(found);
+        });
+    }
+
+    private void assertSingleStatement(Supplier<List<?>> listing) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<?> bookings = listing.get();
+
+        assertThat(bookings.isEmpty(), equalTo(false));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+
+    private Booking saveApproved(Item item, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder().start(start).end(end)
+                .item(item).booker(booker).status(BookingStatus.APPROVED).build());
+    }
+
+    private static List<Long> ids(List<BookingResponseDto> bookings) {
+        return bookings.stream().map(BookingResponseDto::getId).collect(Collectors.toList());
+    }
 }
\ No newline at end of file
@@ -5,10 +5,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemLockStripes;
 import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingCursor;
+import ru.practicum.shareit.booking.util.BookingState;
 import ru.practicum.shareit.booking.util.BookingStatus;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.IncorrectRequestException;
@@ -16,13 +27,22 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +54,14 @@ class BookingServiceTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private KnownUserIds knownUserIds;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Spy
+    private ItemLockStripes itemLockStripes = new ItemLockStripes();
+    @Mock
+    private TransactionTemplate transactionTemplate;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -48,6 +76,7 @@ class BookingServiceTest {
             .booker(booker)
             .status(BookingStatus.WAITING)
             .build();
+    private final BookingResponseDto bookingDto = BookingMapper.toDto(booking);
 
     private final Booking bookingDtoIn = Booking.builder().id(1L)
             .start(LocalDateTime.of(2023, 7, 1, 12, 12, 12))
@@ -81,6 +110,17 @@ class BookingServiceTest {
         Assertions.assertEquals(booking.getBooker(), actualBooking.getBooker());
     }
 
+    @Test
+    void saveNewBooking_whenApprovedBookingOverlaps_thenNotSaved() {
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.overlaps(1L, bookingDtoIn.getStart(), bookingDtoIn.getEnd())).thenReturn(true);
+
+        Assertions.assertThrows(IncorrectRequestException.class, () ->
+                bookingService.createBooking(bookingDtoIn, 2L, 1L));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void saveNewBooking_whenUserNotFound_thenThrownException() {
         when((userRepository).findById(3L)).thenReturn(Optional.empty());
@@ -135,14 +175,82 @@ class BookingServiceTest {
                 bookingService.createBooking(bookingDtoIn, 1L, 1L));
     }
 
+    @Test
+    void saveNewBookings_whenSomeEntriesInvalid_thenSavedOnlyValidOnesInOrder() {
+        BookingRequestDto valid = new BookingRequestDto(1L, bookingDtoIn.getStart(), bookingDtoIn.getEnd());
+        BookingRequestDto wrongDates = new BookingRequestDto(1L, bookingDtoInWrong.getStart(), bookingDtoInWrong.getEnd());
+        BookingRequestDto missingItem = new BookingRequestDto(2L, bookingDtoIn.getStart(), bookingDtoIn.getEnd());
+        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(item));
+        when(bookingRepository.saveAll(argThat(bookings -> ((List<Booking>) bookings).size() == 1)))
+                .thenReturn(List.of(booking));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(List.of(wrongDates, valid, missingItem), 2L);
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertNull(results.get(0).getBooking());
+        Assertions.assertNotNull(results.get(0).getError());
+        Assertions.assertEquals(booking.getId(), results.get(1).getBooking().getId());
+        Assertions.assertNull(results.get(1).getError());
+        Assertions.assertEquals("Вещь не найдена.", results.get(2).getError());
+        verify(itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void saveNewBookings_whenUserNotFound_thenThrownException() {
+        BookingRequestDto valid = new BookingRequestDto(1L, bookingDtoIn.getStart(), bookingDtoIn.getEnd());
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(EntityNotFoundException.class, () ->
+                bookingService.createBookings(List.of(valid), 2L));
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void exportAllOwnedItemBookings_whenUserFound_thenEveryBookingPassedToConsumer() {
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(bookingRepository.streamAllByItemOwnerId(1L)).thenReturn(Stream.of(bookingDto, bookingDto));
+        List<BookingResponseDto> exported = new ArrayList<>();
+
+        bookingService.exportAllOwnedItemBookings(1L, exported::add);
+
+        Assertions.assertEquals(List.of(bookingDto, bookingDto), exported);
+    }
+
+    @Test
+    void exportAllOwnedItemBookings_whenUserNotFound_thenThrownException() {
+        when(knownUserIds.contains(1L)).thenReturn(false);
+
+        Assertions.assertThrows(EntityNotFoundException.class, () ->
+                bookingService.exportAllOwnedItemBookings(1L, booking -> {
+                }));
+        verify(bookingRepository, never()).streamAllByItemOwnerId(anyLong());
+    }
+
     @Test
     void approve() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        stubApprovalTransaction();
 
         Booking actualBooking = bookingService.acceptOrRejectBooking(1L, 1L, true);
 
 
         Assertions.assertEquals(BookingStatus.APPROVED, actualBooking.getStatus());
+        verify(itemRepository).findLockedById(1L);
+        verify(bookingIntervalIndex).add(1L, booking.getStart(), booking.getEnd());
+    }
+
+    @Test
+    void approve_whenApprovedBookingOverlaps_thenThrownException() {
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        stubApprovalTransaction();
+        when(bookingRepository.existsOverlapping(1L, BookingStatus.APPROVED, booking.getStart(), booking.getEnd()))
+                .thenReturn(true);
+
+        Assertions.assertThrows(IncorrectRequestException.class, () ->
+                bookingService.acceptOrRejectBooking(1L, 1L, true));
+        Assertions.assertEquals(BookingStatus.WAITING, booking.getStatus());
+        verify(bookingIntervalIndex, never()).add(anyLong(), any(), any());
     }
 
     @Test
@@ -155,6 +263,7 @@ class BookingServiceTest {
     @Test
     void approve_whenItemAlreadyBooked_thenThrownException() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        stubApprovalTransaction();
         booking.setStatus(BookingStatus.APPROVED);
 
         Assertions.assertThrows(IncorrectRequestException.class, () ->
@@ -180,52 +289,52 @@ class BookingServiceTest {
 
     @Test
     void getAllByBooker_whenStateAll_thenReturnAllBookings() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "ALL", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "ALL", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
     void getAllByBooker_whenStateCurrent_thenReturnListOfBookings() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfter(anyLong(), any(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "CURRENT", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "CURRENT", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
     void getAllByBooker_whenStatePast_thenReturnListOfBookings() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndEndIsBefore(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndEndIsBefore(anyLong(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "PAST", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "PAST", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
     void getAllByBooker_whenStateFuture_thenReturnListOfBookings() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStartIsAfter(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStartIsAfter(anyLong(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "FUTURE", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "FUTURE", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
     void getAllByBooker_whenStateWaiting_thenReturnListOfBookings() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "WAITING", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllBookingsByUserAndState(2L, "WAITING", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
@@ -234,54 +343,92 @@ class BookingServiceTest {
                 bookingService.getAllBookingsByUserAndState(2L, "idi na huy", 0, 10));
     }
 
+    @Test
+    void getAllByBookerAfterCursor_whenCursorValid_thenSeekFromCursor() {
+        BookingCursor cursor = BookingCursor.of(bookingDto);
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(bookingRepository.findAllByBookerIdAndStateAfter(eq(2L), eq(BookingState.ALL), any(),
+                argThat(after -> after.getId() == 1L && after.getStart().equals(booking.getStart())), eq(10)))
+                .thenReturn(List.of(bookingDto));
+
+        List<BookingResponseDto> actualBookings = bookingService.getAllBookingsByUserAndStateAfter(2L, "ALL", cursor.encode(), 10);
+
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
+    }
+
+    @Test
+    void getAllByOwnerAfterCursor_whenCursorEmpty_thenFirstPage() {
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndStateAfter(eq(1L), eq(BookingState.WAITING), any(), isNull(), eq(10)))
+                .thenReturn(List.of(bookingDto));
+
+        List<BookingResponseDto> actualBookings = bookingService.getAllOwnedItemBookingsByStateAfter(1L, "WAITING", "", 10);
+
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
+    }
+
+    @Test
+    void getAllByOwnerAfterCursor_whenCursorMalformed_thenExceptionThrown() {
+        when(knownUserIds.contains(1L)).thenReturn(true);
+
+        Assertions.assertThrows(IncorrectRequestException.class, () ->
+                bookingService.getAllOwnedItemBookingsByStateAfter(1L, "ALL", "not-a-cursor", 10));
+    }
+
     @Test
     void getAllByOwner_whenStateAll_thenReturnAllBookings() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerId(anyLong(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "ALL", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "ALL", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
 
     }
 
     @Test
     void getAllByOwner_whenStateCurrent_thenReturnListOfBookings() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfter(anyLong(), any(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "CURRENT", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "CURRENT", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
     void getAllByOwner_whenStatePast_thenReturnListOfBookings() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndEndIsBefore(anyLong(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "PAST", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "PAST", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
     void getAllByOwner_whenStateFuture_thenReturnListOfBookings() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndStartIsAfter(anyLong(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "FUTURE", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "FUTURE", 0, 10);
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
     }
 
     @Test
     void getAllByOwner_whenStateWaiting_thenReturnListOfBookings() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(booking));
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemOwnerIdAndStatus(anyLong(), any(), any())).thenReturn(List.of(bookingDto));
 
-        List<Booking> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "WAITING", 0, 10);
+        List<BookingResponseDto> actualBookings = bookingService.getAllOwnedItemBookingsByState(1L, "WAITING", 0, 10);
+
+        Assertions.assertEquals(List.of(bookingDto), actualBookings);
+    }
 
-        Assertions.assertEquals(List.of(booking), actualBookings);
+    private void stubApprovalTransaction() {
+        when(bookingRepository.findItemIdById(1L)).thenReturn(Optional.of(item.getId()));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -45,11 +46,13 @@ class CommentRepositoryTest {
 
     @Test
     @DirtiesContext
-    void findAllByItemId() {
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId());
+    void findAllByItemIdIn() {
+        List<CommentResponseDto> comments = commentRepository.findAllByItemIdIn(List.of(item.getId()));
 
         assertThat(comments.get(0).getId(), notNullValue());
         assertThat(comments.get(0).getText(), equalTo(comment.getText()));
+        assertThat(comments.get(0).getAuthorName(), equalTo(user.getName()));
+        assertThat(comments.get(0).getItemId(), equalTo(item.getId()));
         assertThat(comments.size(), equalTo(1));
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@ import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
@@ -65,6 +66,57 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable()), Boolean.class));
     }
 
+    @Test
+    void importItems_whenNdjson_thenAllItemsPassedToService() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> drain(invocation.getArgument(0)));
+        String body = mapper.writeValueAsString(itemDto) + "\n" + mapper.writeValueAsString(itemDto) + "\n";
+
+        mvc.perform(post("/items/import")
+                        .content(body)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2L), Long.class));
+    }
+
+    @Test
+    void importItems_whenJsonArray_thenAllItemsPassedToService() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> drain(invocation.getArgument(0)));
+
+        mvc.perform(post("/items/import")
+                        .content(mapper.writeValueAsString(List.of(itemDto, itemDto, itemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(3L), Long.class));
+    }
+
+    @Test
+    void importItems_whenMalformedJson_thenBadRequest() throws Exception {
+        when(itemService.importItems(any(), anyLong())).thenAnswer(invocation -> drain(invocation.getArgument(0)));
+
+        mvc.perform(post("/items/import")
+                        .content("[" + mapper.writeValueAsString(itemDto) + ", {\"name\": ")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static long drain(Iterator<ItemRequestDto> items) {
+        long count = 0;
+        while (items.hasNext()) {
+            items.next();
+            count++;
+        }
+        return count;
+    }
+
     @Test
     void saveNewItem_whenBlankName_thenThrownException() throws Exception {
         mvc.perform(post("/items")
@@ -96,7 +148,7 @@ class ItemControllerTest {
 
     @Test
     void getItemById() throws Exception {
-        when(itemService.getItemById(anyLong(), anyLong())).thenReturn(item);
+        when(itemService.getItemById(anyLong(), anyLong())).thenReturn(ItemMapper.toItemDto(item));
 
         mvc.perform(get("/items/1")
                         .content(mapper.writeValueAsString(itemDto))
@@ -113,7 +165,7 @@ class ItemControllerTest {
 
     @Test
     void getItemsByOwner() throws Exception {
-        when(itemService.getAllItemsByUserId(anyLong(), anyInt(), anyInt())).thenReturn(List.of(item));
+        when(itemService.getAllItemsByUserId(anyLong(), anyInt(), anyInt())).thenReturn(List.of(ItemMapper.toItemDto(item)));
         mvc.perform(get("/items")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -8,9 +8,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -23,6 +26,8 @@ class ItemRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
 
 
     private final User user = User.builder().name("user").email("user@mail.ru").build();
@@ -43,4 +48,30 @@ class ItemRepositoryTest {
         assertThat(items.get(0).getName(), equalTo(item.getName()));
         assertThat(items.size(), equalTo(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DirtiesContext
+    void search_whenNameMatchesButItemUnavailable_thenNotFound() {
+        itemRepository.save(Item.builder().name("drill").description("loud").available(false).owner(user).build());
+
+        List<Item> items = itemRepository.search("drill", Pageable.ofSize(10));
+
+        assertThat(items.size(), equalTo(0));
+    }
+
+    @Test
+    @DirtiesContext
+    void findIdsDeletedWithUser_thenOwnedAndRequestedItems() {
+        User other = userRepository.save(User.builder().name("other").email("other@mail.ru").build());
+        ItemRequest request = itemRequestRepository.save(ItemRequest.builder().description("need saw")
+                .requestor(user).created(LocalDateTime.now()).build());
+        Item answer = itemRepository.save(Item.builder().name("saw").description("sharp").available(true)
+                .owner(other).request(request).build());
+        itemRepository.save(Item.builder().name("hammer").description("heavy").available(true).owner(other).build());
+
+        List<Long> ids = itemRepository.findIdsDeletedWithUser(user.getId());
+
+        assertThat(ids.size(), equalTo(2));
+        assertThat(ids.containsAll(List.of(item.getId(), answer.getId())), equalTo(true));
+    }
+}
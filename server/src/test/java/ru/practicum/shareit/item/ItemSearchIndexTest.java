@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ItemSearchIndex index;
+
+    private final Item drill = Item.builder().id(1L).name("Дрель").description("Простая дрель").available(true).build();
+    private final Item saw = Item.builder().id(2L).name("Пила").description("Ручная пила").available(true).build();
+    private final Item brokenDrill = Item.builder().id(3L).name("Дрель").description("Сломана").available(false).build();
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemSearchIndex(itemRepository, meterRegistry, true);
+        when(itemRepository.findAllByIdGreaterThanOrderByIdAsc(anyLong(), any()))
+                .thenReturn(List.of(drill, saw, brokenDrill));
+        index.rebuild();
+    }
+
+    @Test
+    void search_whenSubstringMatches_thenReturnOnlyAvailableItems() {
+        Optional<List<Item>> found = index.search("дРЕ", 0, 10);
+
+        Assertions.assertTrue(found.isPresent());
+        Assertions.assertEquals(List.of(1L), ids(found.get()));
+    }
+
+    @Test
+    void search_whenQueryShorterThanTrigram_thenNotAnswered() {
+        Assertions.assertTrue(index.search("др", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_whenNothingMatches_thenEmptyResult() {
+        Assertions.assertEquals(Optional.of(List.of()), index.search("молоток", 0, 10));
+    }
+
+    @Test
+    void index_whenItemUpdated_thenOldTextNoLongerFound() {
+        index.index(Item.builder().id(2L).name("Молоток").description("Тяжёлый").available(true).build());
+        index.index(Item.builder().id(3L).name("Дрель").description("Починили").available(true).build());
+
+        Assertions.assertEquals(List.of(), ids(index.search("пила", 0, 10).orElseThrow()));
+        Assertions.assertEquals(List.of(2L), ids(index.search("молот", 0, 10).orElseThrow()));
+        Assertions.assertEquals(List.of(1L, 3L), ids(index.search("дрель", 0, 10).orElseThrow()));
+        Assertions.assertEquals(List.of(1L, 3L), ids(index.search("дрель", 1, 10).orElseThrow()));
+        Assertions.assertEquals(List.of(3L), ids(index.search("дрель", 1, 1).orElseThrow()));
+    }
+
+    @Test
+    void remove_thenItemNoLongerFound() {
+        index.remove(List.of(1L));
+
+        Assertions.assertEquals(List.of(), ids(index.search("дрель", 0, 10).orElseThrow()));
+        Assertions.assertEquals(1.0, meterRegistry.get("shareit.search.index.items").gauge().value());
+    }
+
+    @Test
+    void rebuild_thenMetricsRegistered() {
+        Assertions.assertEquals(1, meterRegistry.get("shareit.search.index.rebuild").timer().count());
+        Assertions.assertEquals(2.0, meterRegistry.get("shareit.search.index.items").gauge().value());
+        Assertions.assertTrue(meterRegistry.get("shareit.search.index.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void indexOwnedRange_thenImportedItemsLoadedFromRepository() {
+        Item hammer = Item.builder().id(10L).name("Молоток").description("Тяжёлый").available(true).build();
+        when(itemRepository.findOwnedInRange(eq(5L), eq(9L), eq(10L), any())).thenReturn(List.of(hammer));
+
+        index.indexOwnedRange(5L, 10L, 10L);
+
+        Assertions.assertEquals(List.of(10L), ids(index.search("молот", 0, 10).orElseThrow()));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
@@ -12,6 +13,8 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -44,4 +47,21 @@ class ItemServiceIntegrationTest {
         assertThat(item.getName(), equalTo(itemDtoIn.getName()));
         assertThat(item.getDescription(), equalTo(itemDtoIn.getDescription()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void importItems_whenMoreItemsThanChunk_thenAllSaved() {
+        User user = userService.createUser(User.builder().name("importer").email("importer@mail.ru").build());
+        List<ItemRequestDto> items = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            items.add(ItemRequestDto.builder().name("imported" + i).description("cool").available(true).build());
+        }
+
+        long imported = itemService.importItems(items.iterator(), user.getId());
+
+        Long saved = entityManager.createQuery("select count(i) from Item i where i.owner.id = :owner", Long.class)
+                .setParameter("owner", user.getId())
+                .getSingleResult();
+        assertThat(imported, equalTo(1200L));
+        assertThat(saved, equalTo(1200L));
+    }
+}
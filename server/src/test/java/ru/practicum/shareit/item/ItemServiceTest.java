@@ -1,13 +1,14 @@
 package ru.practicum.shareit.item;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.repository.BookingRepository;
 import ru.practicum.shareit.booking.util.BookingStatus;
@@ -16,19 +17,31 @@ import ru.practicum.shareit.exception.IncorrectRequestException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.comment.dto.CommentMapper;
+import ru.practicum.shareit.item.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,10 +52,18 @@ class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private KnownUserIds knownUserIds;
+    @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
-    @InjectMocks
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private EntityManager entityManager;
+
     private ItemServiceImpl itemService;
 
     private final long id = 1L;
@@ -56,7 +77,71 @@ class ItemServiceTest {
             .created(LocalDateTime.of(2023, 7, 1, 12, 12, 12)).build();
     private final Comment comment = new Comment(id, "abc", item, user,
             LocalDateTime.of(2023, 7, 1, 12, 12, 12));
-    private final Booking booking = new Booking(id, null, null, item, user, BookingStatus.WAITING);
+    private final Booking booking = new Booking(id, null, null, item, user, BookingStatus.WAITING, null);
+
+    private BookingShort bookingShort(String kind) {
+        BookingShort bookingShort = mock(BookingShort.class);
+        when(bookingShort.getItemId()).thenReturn(item.getId());
+        when(bookingShort.getId()).thenReturn(booking.getId());
+        when(bookingShort.getBookerId()).thenReturn(user.getId());
+        when(bookingShort.getKind()).thenReturn(kind);
+        return bookingShort;
+    }
+
+    @BeforeEach
+    void setUp() {
+        itemService = newItemService(500);
+    }
+
+    private ItemServiceImpl newItemService(int importChunkSize) {
+        return new ItemServiceImpl(itemRepository, userRepository, knownUserIds, bookingRepository,
+                commentRepository, itemRequestRepository, itemSearchIndex, entityManager, importChunkSize);
+    }
+
+    @Test
+    void importItems_whenMoreItemsThanChunk_thenSavedInChunks() {
+        itemService = newItemService(2);
+        ItemRequest request = ItemRequest.builder().id(7L).description("need").build();
+        when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        when(itemRequestRepository.findAllById(anyCollection())).thenReturn(List.of(request));
+        List<Item> saved = new ArrayList<>();
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> chunk = new ArrayList<>(invocation.getArgument(0));
+            for (Item item : chunk) {
+                item.setId(10L + saved.size());
+                saved.add(item);
+            }
+            return chunk;
+        });
+        List<ItemRequestDto> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(ItemRequestDto.builder().name("item" + i).description("cool item").available(true)
+                    .requestId(i == 1 ? Long.valueOf(7) : i == 3 ? Long.valueOf(8) : null).build());
+        }
+
+        long imported = itemService.importItems(items.iterator(), id);
+
+        Assertions.assertEquals(5, imported);
+        verify(itemRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(itemRequestRepository, times(2)).findAllById(anyCollection());
+        verify(itemRequestRepository, never()).findById(anyLong());
+        Assertions.assertSame(request, saved.get(1).getRequest());
+        Assertions.assertNull(saved.get(3).getRequest());
+        Assertions.assertTrue(saved.stream().allMatch(item -> item.getOwner() == user));
+        verify(itemSearchIndex).indexOwnedRange(id, 10L, 14L);
+        verify(itemSearchIndex, never()).index(any());
+    }
+
+    @Test
+    void importItems_whenUserNotFound_thenThrownException() {
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(EntityNotFoundException.class, () ->
+                itemService.importItems(List.<ItemRequestDto>of().iterator(), id));
+        verify(itemRepository, never()).saveAll(anyList());
+    }
 
     @Test
     void saveNewItem_whenUserFound_thenSavedItem() {
@@ -101,35 +186,36 @@ class ItemServiceTest {
 
     @Test
     void getItemById_whenItemFound_thenReturnedItem() {
-        when(bookingRepository.findFirstByItemIdAndStartLessThanEqualAndStatusOrderByEndDesc(anyLong(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByEndAsc(anyLong(), any(), any()))
-                .thenReturn(Optional.of(booking));
-        when(commentRepository.findAllByItemId(id)).thenReturn(List.of(comment));
-        when(itemRepository.findById(id)).thenReturn(Optional.of(item));
-        final ItemResponseDto itemDto = ItemMapper.toItemDtoWithBookings(item);
-        itemDto.setLastBooking(BookingMapper.toBookingDto(Optional.of(booking)));
-        itemDto.setNextBooking(BookingMapper.toBookingDto(Optional.of(booking)));
+        List<BookingShort> lastAndNext = List.of(bookingShort(BookingShort.LAST), bookingShort(BookingShort.NEXT));
+        when(bookingRepository.findLastAndNextByItemIds(anyCollection(), any(), any())).thenReturn(lastAndNext);
+        CommentResponseDto commentView = CommentMapper.toDto(comment);
+        commentView.setItemId(item.getId());
+        when(commentRepository.findAllByItemIdIn(anyCollection())).thenReturn(List.of(commentView));
+        when(itemRepository.findViewById(id)).thenReturn(Optional.of(new ItemResponseDto(item.getId(), item.getName(),
+                item.getDescription(), item.getAvailable(), null, user.getId())));
+        final ItemResponseDto itemDto = ItemMapper.toItemDto(item);
+        itemDto.setLastBooking(BookingMapper.toBookingDto(lastAndNext.get(0)));
+        itemDto.setNextBooking(BookingMapper.toBookingDto(lastAndNext.get(1)));
         itemDto.setComments(List.of(CommentMapper.toDto(comment)));
 
-        ItemResponseDto actualItemDto = ItemMapper.toItemDtoWithBookings(itemService.getItemById(id, id));
+        ItemResponseDto actualItemDto = itemService.getItemById(id, id);
 
         Assertions.assertEquals(itemDto, actualItemDto);
     }
 
     @Test
     void getItemById_whenItemNotFound_thenExceptionThrown() {
-        when((itemRepository).findById(2L)).thenReturn(Optional.empty());
+        when((itemRepository).findViewById(2L)).thenReturn(Optional.empty());
 
         Assertions.assertThrows(EntityNotFoundException.class, () -> itemService.getItemById(2L, id));
     }
 
     @Test
     void getItemsByOwner_CorrectArgumentsForPaging_thenReturnItems() {
-        when(userRepository.findById(id)).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong(), any())).thenReturn(List.of(item));
+        when(knownUserIds.contains(id)).thenReturn(true);
+        when(itemRepository.findAllByOwnerIdOrderByIdAsc(anyLong(), any())).thenReturn(List.of(ItemMapper.toItemDto(item)));
 
-        List<ItemResponseDto> targetItems = ItemMapper.toItemDto(itemService.getAllItemsByUserId(id, 0, 10));
+        List<ItemResponseDto> targetItems = itemService.getAllItemsByUserId(id, 0, 10);
 
         Assertions.assertNotNull(targetItems);
         Assertions.assertEquals(1, targetItems.size());
@@ -149,6 +235,16 @@ class ItemServiceTest {
                 .search(any(), any());
     }
 
+    @Test
+    void getItemBySearch_whenIndexAnswers_thenRepositoryNotQueried() {
+        when(itemSearchIndex.search("abc", 0, 10)).thenReturn(Optional.of(List.of(item)));
+
+        List<ItemResponseDto> targetItems = ItemMapper.toItemDto(itemService.searchItem("abc", 0, 10));
+
+        Assertions.assertEquals(1, targetItems.size());
+        verify(itemRepository, never()).search(any(), any());
+    }
+
     @Test
     void getItemBySearch_whenTextIsBlank_thenReturnEmptyList() {
         List<ItemResponseDto> targetItems = ItemMapper.toItemDto(itemService.searchItem("", 0, 10));
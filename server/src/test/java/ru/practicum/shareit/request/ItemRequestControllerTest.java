@@ -67,7 +67,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getRequestsByRequestor() throws Exception {
-        when(requestService.getAllOwnedRequestsWithResponses(anyLong())).thenReturn(List.of(request));
+        when(requestService.getAllOwnedRequestsWithResponses(anyLong())).thenReturn(List.of(ItemRequestMapper.toDto(request)));
 
         mvc.perform(get("/requests")
                         .content(mapper.writeValueAsString(ItemRequestMapper.toDto(request)))
@@ -81,7 +81,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getAllRequests() throws Exception {
-        when(requestService.getAllAvailableItemRequests(anyLong(), anyInt(), anyInt())).thenReturn(List.of(request));
+        when(requestService.getAllAvailableItemRequests(anyLong(), anyInt(), anyInt())).thenReturn(List.of(ItemRequestMapper.toDto(request)));
 
         mvc.perform(get("/requests/all")
                         .content(mapper.writeValueAsString(ItemRequestMapper.toDto(request)))
@@ -106,7 +106,7 @@ class ItemRequestControllerTest {
 
     @Test
     void getRequestById() throws Exception {
-        when(requestService.getItemRequestByIdWithResponses(anyLong(), anyLong())).thenReturn(request);
+        when(requestService.getItemRequestByIdWithResponses(anyLong(), anyLong())).thenReturn(ItemRequestMapper.toDto(request));
 
         mvc.perform(get("/requests/1")
                         .content(mapper.writeValueAsString(ItemRequestMapper.toDto(request)))
@@ -10,6 +10,7 @@ import ru.practicum.shareit.booking.service.repository.BookingRepository;
 import ru.practicum.shareit.booking.util.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOut;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -64,7 +65,7 @@ class ItemRequestRepositoryTest {
     @Test
     @DirtiesContext
     void findAllByRequestorId() {
-        List<ItemRequest> requests = requestRepository.findAllByRequestorId(2L);
+        List<ItemRequestDtoOut> requests = requestRepository.findAllByRequestorId(2L);
 
         assertThat(requests.get(0).getId(), equalTo(request.getId()));
         assertThat(requests.size(), equalTo(1));
@@ -17,12 +17,14 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +36,8 @@ class ItemRequestServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private KnownUserIds knownUserIds;
+    @Mock
     private ItemRepository itemRepository;
     @InjectMocks
     private ItemRequestServiceImpl requestService;
@@ -60,7 +64,7 @@ class ItemRequestServiceTest {
 
     @Test
     void saveNewRequest() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
+        when(knownUserIds.contains(2L)).thenReturn(true);
         when(requestRepository.save(any())).thenReturn(request);
 
         final ItemRequest actualRequest = requestService.createItemRequest(
@@ -71,19 +75,18 @@ class ItemRequestServiceTest {
 
     @Test
     void getRequestsByRequestor_whenUserFound_thenSavedRequest() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
-        when(requestRepository.findAllByRequestorId(anyLong())).thenReturn(List.of(request));
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(requestRepository.findAllByRequestorId(anyLong())).thenReturn(List.of(ItemRequestMapper.toDto(request)));
         ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toDto(request);
 
-        List<ItemRequestDtoOut> actualRequests = ItemRequestMapper
-                .toDto(requestService.getAllOwnedRequestsWithResponses(2L));
+        List<ItemRequestDtoOut> actualRequests = requestService.getAllOwnedRequestsWithResponses(2L);
 
         Assertions.assertEquals(List.of(requestDtoOut), actualRequests);
     }
 
     @Test
     void getRequestsByRequestor_whenUserNotFound_thenThrownException() {
-        when((userRepository).findById(3L)).thenReturn(Optional.empty());
+        when(knownUserIds.contains(3L)).thenReturn(false);
 
         Assertions.assertThrows(EntityNotFoundException.class, () ->
                 requestService.getAllOwnedRequestsWithResponses(3L));
@@ -91,27 +94,26 @@ class ItemRequestServiceTest {
 
     @Test
     void getAllRequests_whenCorrectPageArguments_thenReturnRequests() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(requestor));
-        when(requestRepository.findAllByRequestorIdIsNot(anyLong(), any())).thenReturn(List.of(request2));
+        when(knownUserIds.contains(2L)).thenReturn(true);
+        when(requestRepository.findAllByRequestorIdIsNot(anyLong(), any()))
+                .thenReturn(List.of(ItemRequestMapper.toDto(request2)));
 
         final ItemRequestDtoOut requestDtoOut = ItemRequestMapper.toDto(request2);
 
-        List<ItemRequestDtoOut> actualRequests = ItemRequestMapper
-                .toDto(requestService.getAllAvailableItemRequests(2L, 0, 10));
+        List<ItemRequestDtoOut> actualRequests = requestService.getAllAvailableItemRequests(2L, 0, 10);
 
         Assertions.assertEquals(List.of(requestDtoOut), actualRequests);
     }
 
     @Test
     void getRequestById() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request));
-        when(itemRepository.findAllByRequestId(1L)).thenReturn(List.of(item));
+        when(knownUserIds.contains(1L)).thenReturn(true);
+        when(requestRepository.findViewById(anyLong())).thenReturn(Optional.of(ItemRequestMapper.toDto(request)));
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenReturn(List.of(ItemMapper.toItemDto(item)));
         final ItemRequestDtoOut requestDto = ItemRequestMapper.toDto(request);
         requestDto.setItems(List.of(ItemMapper.toItemDto(item)));
 
-        ItemRequestDtoOut actualRequest = ItemRequestMapper
-                .toDto(requestService.getItemRequestByIdWithResponses(1L, 1L));
+        ItemRequestDtoOut actualRequest = requestService.getItemRequestByIdWithResponses(1L, 1L);
 
         Assertions.assertEquals(requestDto, actualRequest);
     }
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KnownUserIdsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private KnownUserIds knownUserIds;
+
+    @BeforeEach
+    void setUp() {
+        knownUserIds = new KnownUserIds(userRepository);
+        when(userRepository.findIdsGreaterThan(anyLong(), any())).thenReturn(List.of(1L, 2L));
+        knownUserIds.load();
+    }
+
+    @Test
+    void contains_whenLoadedUser_thenNoQuery() {
+        Assertions.assertTrue(knownUserIds.contains(1L));
+        Assertions.assertTrue(knownUserIds.contains(2L));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void contains_whenUnknownUser_thenCheckedInRepositoryAndRemembered() {
+        when(userRepository.existsById(3L)).thenReturn(true);
+
+        Assertions.assertTrue(knownUserIds.contains(3L));
+        Assertions.assertTrue(knownUserIds.contains(3L));
+        verify(userRepository, times(1)).existsById(3L);
+    }
+
+    @Test
+    void contains_whenMissingUser_thenFalse() {
+        when(userRepository.existsById(4L)).thenReturn(false);
+
+        Assertions.assertFalse(knownUserIds.contains(4L));
+    }
+
+    @Test
+    void remove_thenUserCheckedInRepositoryAgain() {
+        knownUserIds.add(5L);
+        knownUserIds.remove(1L);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        Assertions.assertTrue(knownUserIds.contains(5L));
+        Assertions.assertFalse(knownUserIds.contains(1L));
+    }
+
+    @Test
+    void remove_whenInTransaction_thenClearedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            knownUserIds.remove(1L);
+
+            Assertions.assertTrue(knownUserIds.contains(1L));
+            verify(userRepository, never()).existsById(anyLong());
+
+            when(userRepository.existsById(1L)).thenReturn(false);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Assertions.assertFalse(knownUserIds.contains(1L));
+    }
+
+    @Test
+    void contains_whenUserRemovedDuringLookup_thenNotRemembered() {
+        when(userRepository.existsById(3L)).thenAnswer(invocation -> {
+            knownUserIds.remove(3L);
+            return true;
+        });
+
+        Assertions.assertTrue(knownUserIds.contains(3L));
+
+        when(userRepository.existsById(3L)).thenReturn(false);
+        Assertions.assertFalse(knownUserIds.contains(3L));
+    }
+}
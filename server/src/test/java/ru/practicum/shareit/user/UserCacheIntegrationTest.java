@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(
+        properties = "spring.datasource.username=test",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class UserCacheIntegrationTest {
+
+    private final UserService userService;
+    private final ItemService itemService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void userAndItemReads_areServedFromCacheAndInvalidated() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        User user = userService.createUser(User.builder().name("cached").email("cached@mail.ru").build());
+        Item item = itemService.createItem(Item.builder().name("item").description("cool").available(true).build(),
+                user.getId());
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        userService.getUserById(user.getId());
+        assertThat(statistics.getSecondLevelCacheHitCount(), greaterThan(hits));
+
+        userService.updateUser(User.builder().name("renamed").build(), user.getId());
+        assertThat(userService.getUserById(user.getId()).getName(), equalTo("renamed"));
+
+        itemService.updateItemById(Item.builder().name("updated").build(), item.getId(), user.getId());
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId()), equalTo(true));
+
+        userService.deleteUser(user.getId());
+        Assertions.assertThrows(EntityNotFoundException.class, () -> userService.getUserById(user.getId()));
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId()), equalTo(false));
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit").functionCounter(),
+                notNullValue());
+    }
+}
@@ -8,15 +8,26 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.repository.BookingRepository;
+import ru.practicum.shareit.booking.util.BookingStatus;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.KnownUserIds;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 
@@ -25,6 +36,20 @@ class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache cache;
+    @Mock
+    private KnownUserIds knownUserIds;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -69,6 +94,7 @@ class UserServiceTest {
         User actualUser = userService.createUser(user);
 
         Assertions.assertEquals(user, actualUser);
+        verify(knownUserIds).add(id);
     }
 
     @Test
@@ -98,8 +124,27 @@ class UserServiceTest {
 
     @Test
     void deleteUser() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(itemRepository.findIdsDeletedWithUser(1L)).thenReturn(List.of(10L, 11L));
+        when(bookingRepository.findItemIdsByBookerIdAndStatus(1L, BookingStatus.APPROVED)).thenReturn(List.of(11L, 20L));
+
         userService.deleteUser(1L);
         verify(userRepository, times(1))
                 .deleteById(1L);
+        verify(knownUserIds).remove(1L);
+        verify(cache).evict(Item.class);
+        verify(cache).evict(ItemRequest.class);
+        verify(bookingIntervalIndex).invalidate(Set.of(10L, 11L, 20L));
+    }
+
+    @Test
+    void deleteUser_whenSearchIndexEnabled_thenOwnedItemsRemovedFromIndex() {
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(itemSearchIndex.isEnabled()).thenReturn(true);
+        when(itemRepository.findIdsDeletedWithUser(1L)).thenReturn(List.of(10L, 11L));
+
+        userService.deleteUser(1L);
+
+        verify(itemSearchIndex).remove(List.of(10L, 11L));
     }
 }
\ No newline at end of file